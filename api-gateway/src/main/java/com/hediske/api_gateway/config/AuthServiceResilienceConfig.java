@@ -0,0 +1,80 @@
+package com.hediske.api_gateway.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker and concurrency bulkhead guarding calls to auth-service.
+ *
+ * State and call meters are published as {@code resilience4j.circuitbreaker.*} and
+ * {@code resilience4j.bulkhead.*} with {@code name=auth-service}; every state change also increments
+ * {@code gateway.auth.circuitbreaker.transitions{from,to}}.
+ */
+@Slf4j
+@Configuration
+public class AuthServiceResilienceConfig {
+
+    public static final String AUTH_SERVICE = "auth-service";
+
+    @Bean
+    public CircuitBreaker authServiceCircuitBreaker(MeterRegistry meterRegistry,
+            @Value("${gateway.auth.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${gateway.auth.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${gateway.auth.circuit-breaker.slow-call-duration:1s}") Duration slowCallDuration,
+            @Value("${gateway.auth.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${gateway.auth.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+            @Value("${gateway.auth.circuit-breaker.wait-duration-in-open-state:10s}") Duration waitDurationInOpenState,
+            @Value("${gateway.auth.circuit-breaker.permitted-calls-in-half-open-state:5}") int permittedCallsInHalfOpenState) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(AUTH_SERVICE);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("auth-service circuit breaker {}", event.getStateTransition());
+            meterRegistry.counter("gateway.auth.circuitbreaker.transitions",
+                    "from", event.getStateTransition().getFromState().name(),
+                    "to", event.getStateTransition().getToState().name())
+                    .increment();
+        });
+        return circuitBreaker;
+    }
+
+    @Bean
+    public Bulkhead authServiceBulkhead(MeterRegistry meterRegistry,
+            @Value("${gateway.auth.bulkhead.max-concurrent-calls:100}") int maxConcurrentCalls,
+            @Value("${gateway.auth.bulkhead.max-wait:0ms}") Duration maxWait) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build();
+
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(AUTH_SERVICE);
+    }
+}
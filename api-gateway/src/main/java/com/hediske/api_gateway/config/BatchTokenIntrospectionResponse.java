@@ -0,0 +1,13 @@
+package com.hediske.api_gateway.config;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BatchTokenIntrospectionResponse {
+    private List<TokenIntrospectionResponse> results;
+
+}
@@ -0,0 +1,23 @@
+package com.hediske.api_gateway.config;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResponse {
+    private JsonNode weeklyNutrition;
+    private JsonNode workoutStats;
+    private JsonNode recentSessions;
+    // true when at least one section is missing; errors holds the reason per section
+    private boolean partial;
+    private Map<String, String> errors;
+}
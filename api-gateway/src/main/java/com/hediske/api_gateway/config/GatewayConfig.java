@@ -17,4 +17,9 @@ public class GatewayConfig {
     public WebFilter jwtFilter() {
         return jwtAuthFilter;
     }
+
+    @Bean
+    public static PublicRouteMatcher publicRouteMatcher(PublicRouteProperties properties) {
+        return PublicRouteMatcher.compile(properties.getPublicRoutes());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,321 @@
+package com.hediske.api_gateway.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.hediske.api_gateway.services.HedgingPolicy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+/**
+ * Hedges {@code GET} requests on the routes listed under {@code gateway.hedging.routes}.
+ *
+ * The request is sent to the instance the load balancer picked; if it has not answered within
+ * the route's {@link HedgingPolicy#hedgeDelay() hedge delay} and the hedging budget allows it, the
+ * same request is sent to a second instance and whichever response headers arrive first win (the
+ * other call is cancelled). Only {@code GET} is hedged because it is safe to send twice. Hedged
+ * requests are routed here instead of by {@code NettyRoutingFilter}, using the same
+ * {@code gatewayHttpClient}, header filters and route {@code response-timeout}; the winning body is
+ * streamed to the client by {@code NettyWriteResponseFilter}, never buffered. The second instance
+ * is chosen and reported through the load balancer lifecycle, like the primary one.
+ *
+ * Metrics: {@code gateway.hedging.requests}, {@code gateway.hedging.hedges} and
+ * {@code gateway.hedging.wins} counters plus a {@code gateway.hedging.delay} gauge (ms), all tagged
+ * with {@code route}; hedge rate is hedges/requests and win rate is wins/hedges.
+ */
+@Slf4j
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private final HedgingProperties properties;
+    private final HttpClient httpClient;
+    private final HttpClientProperties httpClientProperties;
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HedgingPolicy> policies = new ConcurrentHashMap<>();
+
+    public HedgingFilter(HedgingProperties properties, HttpClient gatewayHttpClient,
+            HttpClientProperties httpClientProperties, LoadBalancerClientFactory loadBalancerClientFactory,
+            ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.httpClient = gatewayHttpClient;
+        this.httpClientProperties = httpClientProperties;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        // after the load balancer has resolved the primary instance and the upstream phase has
+        // started, before NettyRoutingFilter
+        return UpstreamTimingFilter.ORDER + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (!properties.isEnabled() || route == null || requestUrl == null
+                || !HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                || !properties.getRoutes().contains(route.getId())
+                || !"lb".equals(route.getUri().getScheme())
+                || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                || !("http".equals(requestUrl.getScheme()) || "https".equals(requestUrl.getScheme()))) {
+            return chain.filter(exchange);
+        }
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+
+        String routeId = route.getId();
+        HedgingPolicy policy = policies.computeIfAbsent(routeId, this::createPolicy);
+        policy.onRequest();
+        meterRegistry.counter("gateway.hedging.requests", "route", routeId).increment();
+
+        DefaultHttpHeaders requestHeaders = new DefaultHttpHeaders();
+        HttpHeadersFilter.filterRequest(headersFiltersProvider.getIfAvailable(), exchange).forEach(requestHeaders::set);
+        requestHeaders.remove(HttpHeaders.HOST);
+
+        Mono<Upstream> primary = call(requestUrl, requestHeaders, policy, null);
+        Mono<Upstream> hedge = Mono.delay(policy.hedgeDelay())
+                .filter(tick -> policy.tryAcquireHedge())
+                .flatMap(tick -> alternateInstance(exchange, route.getUri().getHost(), requestUrl))
+                .doOnNext(alternate -> meterRegistry.counter("gateway.hedging.hedges", "route", routeId).increment())
+                .flatMap(alternate -> call(alternate.uri, requestHeaders, policy, alternate));
+
+        Mono<Upstream> winner = Mono.firstWithValue(primary, hedge)
+                // a leg that answered just as it lost the race still holds its connection
+                .doOnDiscard(Upstream.class, upstream -> upstream.connection.dispose());
+        Duration responseTimeout = responseTimeout(route);
+        if (responseTimeout != null) {
+            winner = winner.timeout(responseTimeout,
+                    Mono.error(new TimeoutException("Response took longer than timeout: " + responseTimeout)));
+        }
+        return winner
+                .onErrorMap(NoSuchElementException.class, HedgingFilter::upstreamFailure)
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e))
+                .flatMap(upstream -> {
+                    if (upstream.alternate != null) {
+                        meterRegistry.counter("gateway.hedging.wins", "route", routeId).increment();
+                    }
+                    return forward(exchange, chain, upstream);
+                });
+    }
+
+    private HedgingPolicy createPolicy(String routeId) {
+        HedgingPolicy policy = new HedgingPolicy(properties.getPercentile(), properties.getInitialDelay(),
+                properties.getMinDelay(), properties.getMaxDelay(), properties.getSampleWindow(),
+                properties.getMinSamples(), properties.getBudgetRatio(), properties.getMaxBurst());
+        Gauge.builder("gateway.hedging.delay", policy, p -> p.hedgeDelay().toNanos() / 1_000_000.0)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return policy;
+    }
+
+    // same precedence as NettyRoutingFilter: route metadata (ms, negative disables), then the global setting
+    private Duration responseTimeout(Route route) {
+        Object metadata = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (metadata != null) {
+            long millis = metadata instanceof Number number ? number.longValue() : Long.parseLong(metadata.toString());
+            return millis < 0 ? null : Duration.ofMillis(millis);
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private Mono<Alternate> alternateInstance(ServerWebExchange exchange, String serviceId, URI primaryUrl) {
+        ReactorServiceInstanceLoadBalancer loadBalancer = loadBalancerClientFactory.getInstance(serviceId,
+                ReactorServiceInstanceLoadBalancer.class);
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+        Set<LoadBalancerLifecycle> lifecycleProcessors = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                loadBalancerClientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+        DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(
+                new RequestDataContext(new RequestData(exchange.getRequest()), hint(serviceId)));
+        lifecycleProcessors.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+
+        // a couple of picks is enough to find another instance; hedging the same one is pointless
+        return Mono.defer(() -> loadBalancer.choose(lbRequest))
+                .filter(response -> response.hasServer() && !isSameInstance(response.getServer(), primaryUrl))
+                .repeatWhenEmpty(2, attempts -> attempts)
+                .onErrorResume(e -> Mono.empty())
+                .map(lbResponse -> {
+                    lifecycleProcessors.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+                    URI uri = UriComponentsBuilder.fromUri(primaryUrl)
+                            .host(lbResponse.getServer().getHost())
+                            .port(lbResponse.getServer().getPort())
+                            .build(true)
+                            .toUri();
+                    return new Alternate(uri, lbRequest, lbResponse, lifecycleProcessors);
+                });
+    }
+
+    private String hint(String serviceId) {
+        Map<String, String> hints = loadBalancerClientFactory.getProperties(serviceId).getHint();
+        return hints.getOrDefault(serviceId, hints.getOrDefault("default", "default"));
+    }
+
+    private static boolean isSameInstance(ServiceInstance instance, URI url) {
+        return instance.getHost().equals(url.getHost()) && instance.getPort() == url.getPort();
+    }
+
+    /**
+     * Sends the request and completes with the response headers; the body is left on the connection.
+     * Only answered calls feed the hedge delay, a cancelled loser's elapsed time is not a latency.
+     */
+    private Mono<Upstream> call(URI uri, DefaultHttpHeaders requestHeaders, HedgingPolicy policy,
+            Alternate alternate) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return httpClient.headers(headers -> headers.set(requestHeaders))
+                    .get()
+                    .uri(uri)
+                    .responseConnection((response, connection) -> Mono.just(new Upstream(response, connection, alternate)))
+                    .next()
+                    .doOnNext(upstream -> policy.recordLatency(System.nanoTime() - start))
+                    .doOnError(e -> {
+                        log.debug("{} call to {} failed: {}", alternate != null ? "Hedged" : "Primary", uri, e.toString());
+                        if (alternate != null) {
+                            alternate.complete(new CompletionContext<>(CompletionContext.Status.FAILED, e,
+                                    alternate.lbRequest, alternate.lbResponse));
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (alternate != null) {
+                            alternate.complete(new CompletionContext<>(CompletionContext.Status.DISCARD,
+                                    alternate.lbRequest, alternate.lbResponse));
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Hands the winning response to the rest of the chain the way {@code NettyRoutingFilter} does, so
+     * {@code NettyWriteResponseFilter} streams its body from the connection.
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, Upstream upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        upstream.response.responseHeaders().forEach(e -> headers.add(e.getKey(), e.getValue()));
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (StringUtils.hasLength(contentType)) {
+            exchange.getAttributes().put(ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(upstream.response.status().code()));
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFiltersProvider.getIfAvailable(), headers,
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        if (!filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        response.getHeaders().addAll(filtered);
+
+        exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR, upstream.response);
+        exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR, upstream.connection);
+
+        Mono<Void> result = chain.filter(exchange);
+        Alternate alternate = upstream.alternate;
+        if (alternate == null) {
+            // the primary instance is reported by ReactiveLoadBalancerClientFilter
+            return result;
+        }
+        return result
+                .doOnError(e -> alternate.complete(new CompletionContext<>(CompletionContext.Status.FAILED, e,
+                        alternate.lbRequest, alternate.lbResponse)))
+                .doOnSuccess(ignored -> alternate.complete(new CompletionContext<>(CompletionContext.Status.SUCCESS,
+                        alternate.lbRequest, alternate.lbResponse,
+                        new ResponseData(exchange.getResponse(), new RequestData(exchange.getRequest())))))
+                .doOnCancel(() -> alternate.complete(new CompletionContext<>(CompletionContext.Status.DISCARD,
+                        alternate.lbRequest, alternate.lbResponse)));
+    }
+
+    private static Throwable upstreamFailure(NoSuchElementException e) {
+        Throwable cause = e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e;
+        HttpStatus status = cause instanceof TimeoutException ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY;
+        return new ResponseStatusException(status, cause.getMessage(), cause);
+    }
+
+    private static final class Upstream {
+        private final HttpClientResponse response;
+        private final Connection connection;
+        // null for the primary leg
+        private final Alternate alternate;
+
+        private Upstream(HttpClientResponse response, Connection connection, Alternate alternate) {
+            this.response = response;
+            this.connection = connection;
+            this.alternate = alternate;
+        }
+    }
+
+    /** The second instance of a hedged request, reported to the load balancer lifecycle exactly once. */
+    private static final class Alternate {
+        private final URI uri;
+        private final DefaultRequest<RequestDataContext> lbRequest;
+        private final Response<ServiceInstance> lbResponse;
+        private final Set<LoadBalancerLifecycle> lifecycleProcessors;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Alternate(URI uri, DefaultRequest<RequestDataContext> lbRequest, Response<ServiceInstance> lbResponse,
+                Set<LoadBalancerLifecycle> lifecycleProcessors) {
+            this.uri = uri;
+            this.lbRequest = lbRequest;
+            this.lbResponse = lbResponse;
+            this.lifecycleProcessors = lifecycleProcessors;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+            if (completed.compareAndSet(false, true)) {
+                lifecycleProcessors.forEach(lifecycle -> lifecycle.onComplete(context));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hediske.api_gateway.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Request hedging for {@code GET} requests on the listed routes, applied by {@link HedgingFilter}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+
+    /** Route ids to hedge; only {@code lb://} routes can be hedged. */
+    private List<String> routes = new ArrayList<>();
+
+    /** Latency percentile after which a hedge is sent. */
+    private double percentile = 0.95;
+
+    /** Hedge delay used until {@link #minSamples} latencies have been observed. */
+    private Duration initialDelay = Duration.ofMillis(200);
+    private Duration minDelay = Duration.ofMillis(10);
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    /** Number of recent latencies the percentile is computed over. */
+    private int sampleWindow = 1000;
+    private int minSamples = 100;
+
+    /** Maximum extra load from hedges, as a fraction of hedged-route requests. */
+    private double budgetRatio = 0.05;
+
+    /** Hedges that can be saved up by quiet periods and spent in a burst. */
+    private int maxBurst = 10;
+}
@@ -0,0 +1,34 @@
+package com.hediske.api_gateway.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import com.hediske.api_gateway.services.LatencyAwareLoadBalancer;
+
+/**
+ * Per-service load balancer configuration, instantiated in each {@code lb://} client's child context.
+ * Deliberately not a {@code @Configuration} so component scanning does not apply it globally.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            LoadBalancerProperties properties) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        ObjectProvider<ServiceInstanceListSupplier> supplier = loadBalancerClientFactory
+                .getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        LoadBalancerProperties.Settings settings = properties.forService(serviceId);
+
+        if (settings.getStrategy() == LoadBalancerProperties.Strategy.ROUND_ROBIN) {
+            return new RoundRobinLoadBalancer(supplier, serviceId);
+        }
+        return new LatencyAwareLoadBalancer(supplier, serviceId, settings.getDecay(), settings.getFailurePenalty());
+    }
+}
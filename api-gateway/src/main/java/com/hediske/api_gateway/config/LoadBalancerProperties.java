@@ -0,0 +1,40 @@
+package com.hediske.api_gateway.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Load-balancing strategy for {@code lb://} services, with per-service overrides keyed by service id.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.loadbalancer")
+public class LoadBalancerProperties {
+
+    public enum Strategy {
+        ROUND_ROBIN, LATENCY_AWARE
+    }
+
+    private Settings defaults = new Settings();
+
+    private Map<String, Settings> services = new LinkedHashMap<>();
+
+    public Settings forService(String serviceId) {
+        return services.getOrDefault(serviceId, defaults);
+    }
+
+    @Data
+    public static class Settings {
+        private Strategy strategy = Strategy.LATENCY_AWARE;
+        /** Time constant of the latency EWMA. */
+        private Duration decay = Duration.ofSeconds(10);
+        /** Minimum latency recorded for a failed call. */
+        private Duration failurePenalty = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,142 @@
+package com.hediske.api_gateway.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Segment trie compiled once from the public route patterns.
+ *
+ * Supports the subset of Ant syntax the gateway needs: literal segments, {@code *} for exactly one
+ * segment and {@code **} for zero or more segments (anywhere in the pattern). Matching walks the
+ * path string in place, so a lookup does not allocate and its cost depends on the path depth rather
+ * than on the number of configured routes. Empty segments are ignored, as with {@code AntPathMatcher}.
+ */
+public class PublicRouteMatcher {
+
+    private static final String SINGLE_WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "**";
+
+    private final Node root;
+
+    private PublicRouteMatcher(Node root) {
+        this.root = root;
+    }
+
+    public static PublicRouteMatcher compile(List<String> patterns) {
+        Node root = new Node();
+        for (String pattern : patterns) {
+            Node node = root;
+            for (String segment : pattern.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                node = node.child(segment, pattern);
+            }
+            node.terminal = true;
+        }
+        root.freeze();
+        return new PublicRouteMatcher(root);
+    }
+
+    public boolean matches(String path) {
+        return match(root, path, 0);
+    }
+
+    private static boolean match(Node node, String path, int pos) {
+        pos = skipSeparators(path, pos);
+
+        if (node.multi != null && matchMulti(node.multi, path, pos)) {
+            return true;
+        }
+        if (pos == path.length()) {
+            return node.terminal;
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = path.length();
+        }
+        int length = end - pos;
+
+        for (int i = 0; i < node.literals.length; i++) {
+            String literal = node.literals[i];
+            if (literal.length() == length && path.regionMatches(pos, literal, 0, length)
+                    && match(node.literalChildren[i], path, end)) {
+                return true;
+            }
+        }
+        return node.single != null && match(node.single, path, end);
+    }
+
+    // "**" absorbs zero or more segments, then matching resumes from its node
+    private static boolean matchMulti(Node multi, String path, int pos) {
+        while (true) {
+            if (match(multi, path, pos)) {
+                return true;
+            }
+            if (pos == path.length()) {
+                return false;
+            }
+            int end = path.indexOf('/', pos);
+            pos = skipSeparators(path, end < 0 ? path.length() : end);
+        }
+    }
+
+    private static int skipSeparators(String path, int pos) {
+        while (pos < path.length() && path.charAt(pos) == '/') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static final class Node {
+        private final List<String> literalList = new ArrayList<>();
+        private final List<Node> literalChildList = new ArrayList<>();
+        private String[] literals;
+        private Node[] literalChildren;
+        private Node single;
+        private Node multi;
+        private boolean terminal;
+
+        private Node child(String segment, String pattern) {
+            if (MULTI_WILDCARD.equals(segment)) {
+                if (multi == null) {
+                    multi = new Node();
+                }
+                return multi;
+            }
+            if (SINGLE_WILDCARD.equals(segment)) {
+                if (single == null) {
+                    single = new Node();
+                }
+                return single;
+            }
+            if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+                throw new IllegalArgumentException("Unsupported public route pattern '" + pattern
+                        + "': wildcards must span a whole segment");
+            }
+            int index = literalList.indexOf(segment);
+            if (index >= 0) {
+                return literalChildList.get(index);
+            }
+            Node child = new Node();
+            literalList.add(segment);
+            literalChildList.add(child);
+            return child;
+        }
+
+        private void freeze() {
+            literals = literalList.toArray(new String[0]);
+            literalChildren = literalChildList.toArray(new Node[0]);
+            for (Node child : literalChildren) {
+                child.freeze();
+            }
+            if (single != null) {
+                single.freeze();
+            }
+            if (multi != null) {
+                multi.freeze();
+            }
+        }
+    }
+}
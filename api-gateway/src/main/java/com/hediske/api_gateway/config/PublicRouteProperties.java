@@ -0,0 +1,26 @@
+package com.hediske.api_gateway.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Routes that {@link JwtAuthFilter} lets through without a bearer token. Defaults to the gateway's
+ * built-in list, so a missing or misspelled {@code gateway.auth.public-routes} key does not lock
+ * clients out of login and registration.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.auth")
+public class PublicRouteProperties {
+
+    private List<String> publicRoutes = new ArrayList<>(List.of(
+            "/api/auth/**", "/.well-known/jwks.json", "/swagger-ui/**", "/api/**/v3/api-docs",
+            "/swagger-resources/**", "/webjars/swagger-ui/index.html", "/webjars/**", "/actuator/health",
+            "/actuator/health/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**", "/favicon.ico",
+            "/error"));
+}
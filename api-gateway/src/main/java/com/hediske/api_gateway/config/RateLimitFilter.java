@@ -0,0 +1,99 @@
+package com.hediske.api_gateway.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.hediske.api_gateway.services.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-user, per-route rate limiting keyed by the {@code X-User-Email} that {@link JwtAuthFilter}
+ * resolved from the bearer token; {@link JwtAuthFilter} strips any client-supplied copy, so the
+ * header is only present on authenticated requests. Public routes are not limited.
+ * Rejections answer 429 with {@code Retry-After} and increment
+ * {@code gateway.ratelimit.rejected{route}}.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final String USER_EMAIL_HEADER = "X-User-Email";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Optional<TokenBucketRateLimiter>> limiters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        // ahead of the response cache and load balancing, so rejected requests cost nothing downstream
+        return -200;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String email = exchange.getRequest().getHeaders().getFirst(USER_EMAIL_HEADER);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || email == null || route == null) {
+            return chain.filter(exchange);
+        }
+
+        Optional<TokenBucketRateLimiter> limiter = limiters.computeIfAbsent(route.getId(), this::createLimiter);
+        if (limiter.isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        long waitNanos = limiter.get().tryAcquire(email);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        meterRegistry.counter("gateway.ratelimit.rejected", "route", route.getId()).increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return tooManyRequests(exchange, retryAfterSeconds);
+    }
+
+    private Optional<TokenBucketRateLimiter> createLimiter(String routeId) {
+        RateLimitProperties.Quota quota = properties.getRoutes().getOrDefault(routeId, properties.getDefaultQuota());
+        if (quota == null) {
+            return Optional.empty();
+        }
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(quota.getCapacity(), quota.getRefillPerSecond(),
+                properties.getIdleTimeout(), properties.getMaxTrackedUsers());
+        Gauge.builder("gateway.ratelimit.buckets", limiter, TokenBucketRateLimiter::trackedBuckets)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return Optional.of(limiter);
+    }
+
+    private Mono<Void> tooManyRequests(ServerWebExchange exchange, long retryAfterSeconds) {
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        String errorJson = String.format("{\"error\": \"%s\", \"timestamp\": \"%s\"}", "Rate limit exceeded", Instant.now());
+        exchange.getResponse().getHeaders().add("Content-Type", "application/json");
+        return exchange.getResponse()
+                .writeWith(Mono.just(exchange.getResponse()
+                        .bufferFactory()
+                        .wrap(errorJson.getBytes(StandardCharsets.UTF_8))));
+    }
+}
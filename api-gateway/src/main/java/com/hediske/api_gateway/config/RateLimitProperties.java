@@ -0,0 +1,39 @@
+package com.hediske.api_gateway.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Per-user request quotas enforced by {@link RateLimitFilter}, keyed by gateway route id.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Buckets untouched for this long are dropped. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** Upper bound on tracked users per route. */
+    private long maxTrackedUsers = 100_000;
+
+    /** Applied to routes without an entry in {@link #routes}; {@code null} disables limiting for them. */
+    private Quota defaultQuota;
+
+    private Map<String, Quota> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Quota {
+        /** Burst size. */
+        private int capacity = 100;
+        private double refillPerSecond = 50;
+    }
+}
@@ -0,0 +1,110 @@
+package com.hediske.api_gateway.config;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records {@code gateway.latency{route, phase}} for every request: {@code total} (gateway
+ * receipt to completion), {@code introspection} (token validation in {@link JwtAuthFilter}) and
+ * {@code upstream} (load-balanced call until the response starts). Requests not handled by a
+ * gateway route are tagged {@code route=none}. Percentiles come from the client-side histograms
+ * configured under {@code gateway.timing}.
+ *
+ * When {@code gateway.timing.server-timing.enabled} is set, a sampled fraction of responses also
+ * carries a {@code Server-Timing} header with the same breakdown, e.g.
+ * {@code auth;dur=0.4, upstream;dur=12.8, total;dur=14.1}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingWebFilter implements WebFilter {
+
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final TimingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public RequestTimingWebFilter(TimingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        exchange.getAttributes().put(RequestTimings.ATTRIBUTE, timings);
+
+        boolean sampled = properties.getServerTiming().isEnabled()
+                && ThreadLocalRandom.current().nextDouble() < properties.getServerTiming().getSampleRate();
+        exchange.getResponse().beforeCommit(() -> {
+            long now = System.nanoTime();
+            timings.markCommitted(now);
+            if (sampled) {
+                exchange.getResponse().getHeaders().set(SERVER_TIMING_HEADER, serverTiming(timings, now));
+            }
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange).doFinally(signal -> record(exchange, timings));
+    }
+
+    private void record(ServerWebExchange exchange, RequestTimings timings) {
+        long now = System.nanoTime();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "none";
+
+        timer(routeId, "total").record(timings.totalNanos(now), TimeUnit.NANOSECONDS);
+        if (timings.introspectionNanos() >= 0) {
+            timer(routeId, "introspection").record(timings.introspectionNanos(), TimeUnit.NANOSECONDS);
+        }
+        long upstream = timings.upstreamNanos(now);
+        if (upstream >= 0) {
+            timer(routeId, "upstream").record(upstream, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String routeId, String phase) {
+        return timers.computeIfAbsent(routeId + '|' + phase, key -> Timer.builder("gateway.latency")
+                .tag("route", routeId)
+                .tag("phase", phase)
+                .publishPercentiles(properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry));
+    }
+
+    private static String serverTiming(RequestTimings timings, long now) {
+        StringBuilder header = new StringBuilder();
+        if (timings.introspectionNanos() >= 0) {
+            appendMetric(header, "auth", timings.introspectionNanos());
+        }
+        long upstream = timings.upstreamNanos(now);
+        if (upstream >= 0) {
+            appendMetric(header, "upstream", upstream);
+        }
+        appendMetric(header, "total", timings.totalNanos(now));
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0));
+    }
+}
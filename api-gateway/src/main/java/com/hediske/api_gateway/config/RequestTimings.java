@@ -0,0 +1,63 @@
+package com.hediske.api_gateway.config;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Phase timestamps of one request, kept as an exchange attribute by {@link RequestTimingWebFilter}.
+ * Mutated by the filters on the request's own signal path, so plain fields are enough.
+ */
+public final class RequestTimings {
+
+    static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private static final long UNSET = -1;
+
+    private final long start;
+    private long introspectionNanos = UNSET;
+    private long upstreamStart = UNSET;
+    private long committedAt = UNSET;
+
+    RequestTimings(long start) {
+        this.start = start;
+    }
+
+    public static void recordIntrospection(ServerWebExchange exchange, long nanos) {
+        RequestTimings timings = exchange.getAttribute(ATTRIBUTE);
+        if (timings != null) {
+            timings.introspectionNanos = nanos;
+        }
+    }
+
+    public static void markUpstreamStart(ServerWebExchange exchange) {
+        RequestTimings timings = exchange.getAttribute(ATTRIBUTE);
+        if (timings != null) {
+            timings.upstreamStart = System.nanoTime();
+        }
+    }
+
+    void markCommitted(long now) {
+        if (committedAt == UNSET) {
+            committedAt = now;
+        }
+    }
+
+    long totalNanos(long now) {
+        return now - start;
+    }
+
+    /** Auth introspection time, or -1 when the request skipped it. */
+    long introspectionNanos() {
+        return introspectionNanos;
+    }
+
+    /**
+     * Time from handing the request to the routing filter until the response started (headers
+     * received and committed), or until {@code now} if it never committed; -1 when not routed.
+     */
+    long upstreamNanos(long now) {
+        if (upstreamStart == UNSET) {
+            return UNSET;
+        }
+        return (committedAt != UNSET ? committedAt : now) - upstreamStart;
+    }
+}
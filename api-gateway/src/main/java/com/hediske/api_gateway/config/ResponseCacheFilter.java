@@ -0,0 +1,255 @@
+package com.hediske.api_gateway.config;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory cache for GET responses of the catalog routes listed under {@code gateway.response-cache.rules}.
+ *
+ * Entries are keyed on path, query and {@code X-User-Role} (set by {@link JwtAuthFilter}), so an
+ * admin-only listing is never served to another role. Cached and fresh 200 responses carry a strong
+ * ETag, and a matching {@code If-None-Match} is answered with 304. A successful write on one of a
+ * rule's {@code invalidate-on} paths clears that rule's entries and bumps its generation, so a GET
+ * already in flight does not store its possibly stale body. Each rule is a separate Caffeine cache
+ * with its own TTL and size, published as {@code cache.*{cache=gateway.response.<rule>}}.
+ *
+ * Responses with a {@code Content-Encoding} are not stored, since {@code Accept-Encoding} is not part
+ * of the key, and neither are responses the upstream marks {@code no-store} or {@code private} or
+ * that set a cookie.
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String USER_ROLE_HEADER = "X-User-Role";
+    private static final List<String> CACHED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE);
+
+    private final boolean enabled;
+    private final int maxBodySize;
+    private final List<CacheRule> rules = new ArrayList<>();
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxBodySize = properties.getMaxBodySize();
+        for (Map.Entry<String, ResponseCacheProperties.Rule> entry : properties.getRules().entrySet()) {
+            CacheRule rule = new CacheRule(entry.getKey(), entry.getValue());
+            CaffeineCacheMetrics.monitor(meterRegistry, rule.cache, "gateway.response." + rule.name);
+            rules.add(rule);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // must wrap the response before NettyWriteResponseFilter writes the upstream body
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled || rules.isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        PathContainer path = request.getPath().pathWithinApplication();
+        HttpMethod method = request.getMethod();
+
+        if (method == HttpMethod.GET) {
+            for (CacheRule rule : rules) {
+                if (rule.matches(rule.paths, path)) {
+                    return serveCached(exchange, chain, rule);
+                }
+            }
+            return chain.filter(exchange);
+        }
+
+        if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH
+                || method == HttpMethod.DELETE) {
+            List<CacheRule> affected = rules.stream()
+                    .filter(rule -> rule.matches(rule.invalidateOn, path))
+                    .toList();
+            if (!affected.isEmpty()) {
+                return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        affected.forEach(rule -> {
+                            log.debug("Invalidating response cache '{}' after {} {}", rule.name, method, path);
+                            rule.invalidate();
+                        });
+                    }
+                }));
+            }
+        }
+
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> serveCached(ServerWebExchange exchange, GatewayFilterChain chain, CacheRule rule) {
+        ServerHttpRequest request = exchange.getRequest();
+        String role = request.getHeaders().getFirst(USER_ROLE_HEADER);
+        String query = request.getURI().getRawQuery();
+        String key = request.getPath().value() + '?' + (query != null ? query : "") + '|' + (role != null ? role : "");
+
+        long generation = rule.generation.get();
+        CachedResponse cached = rule.cache.getIfPresent(key);
+        ServerHttpResponse response = exchange.getResponse();
+
+        if (cached != null) {
+            response.getHeaders().setETag(cached.etag);
+            if (request.getHeaders().getIfNoneMatch().stream().anyMatch(tag -> tag.equals(cached.etag) || tag.equals("*"))) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.setComplete();
+            }
+            response.setStatusCode(HttpStatus.OK);
+            cached.headers.forEach((name, value) -> response.getHeaders().set(name, value));
+            response.getHeaders().setContentLength(cached.body.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body)));
+        }
+
+        ServerHttpResponseDecorator caching = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || status.value() != HttpStatus.OK.value() || !isStorable(getHeaders())) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(body)
+                        .flatMap(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+
+                            if (bytes.length <= maxBodySize) {
+                                CachedResponse entry = new CachedResponse(bytes, copyHeaders(getHeaders()));
+                                rule.put(key, entry, generation);
+                                getHeaders().setETag(entry.etag);
+                            }
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(caching).build());
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        String encoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        if ((encoding != null && !encoding.equalsIgnoreCase("identity")) || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT);
+        return !cacheControl.contains("no-store") && !cacheControl.contains("private");
+    }
+
+    private static Map<String, String> copyHeaders(HttpHeaders headers) {
+        Map<String, String> copied = new LinkedHashMap<>();
+        for (String name : CACHED_HEADERS) {
+            String value = headers.getFirst(name);
+            if (value != null) {
+                copied.put(name, value);
+            }
+        }
+        return copied;
+    }
+
+    private static final class CacheRule {
+        private final String name;
+        private final List<PathPattern> paths;
+        private final List<PathPattern> invalidateOn;
+        private final Cache<String, CachedResponse> cache;
+        private final AtomicLong generation = new AtomicLong();
+
+        private CacheRule(String name, ResponseCacheProperties.Rule rule) {
+            this.name = name;
+            this.paths = rule.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            this.invalidateOn = rule.getInvalidateOn().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(rule.getMaxEntries())
+                    .expireAfterWrite(rule.getTtl())
+                    .recordStats()
+                    .build();
+        }
+
+        private void invalidate() {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+
+        // stores the entry only if no invalidation ran since the GET read generationAtStart
+        private void put(String key, CachedResponse entry, long generationAtStart) {
+            if (generation.get() != generationAtStart) {
+                return;
+            }
+            cache.put(key, entry);
+            // an invalidation between the check and the put has to take the entry out again
+            if (generation.get() != generationAtStart) {
+                cache.asMap().remove(key, entry);
+            }
+        }
+
+        private boolean matches(List<PathPattern> patterns, PathContainer path) {
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class CachedResponse {
+        private final byte[] body;
+        private final Map<String, String> headers;
+        private final String etag;
+
+        private CachedResponse(byte[] body, Map<String, String> headers) {
+            this.body = body;
+            this.headers = headers;
+            this.etag = "\"" + digest(body) + "\"";
+        }
+
+        private static String digest(byte[] body) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 27);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
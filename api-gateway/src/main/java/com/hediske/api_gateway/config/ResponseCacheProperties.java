@@ -0,0 +1,38 @@
+package com.hediske.api_gateway.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Read-mostly routes whose GET responses {@link ResponseCacheFilter} serves from memory.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Responses larger than this are passed through uncached. */
+    private int maxBodySize = 512 * 1024;
+
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    @Data
+    public static class Rule {
+        /** PathPattern syntax, e.g. {@code /api/exercise/{id:[0-9]+}}. */
+        private List<String> paths = new ArrayList<>();
+        /** Successful POST/PUT/PATCH/DELETE on these paths clears the rule's cache. */
+        private List<String> invalidateOn = new ArrayList<>();
+        private Duration ttl = Duration.ofMinutes(5);
+        private long maxEntries = 1000;
+    }
+}
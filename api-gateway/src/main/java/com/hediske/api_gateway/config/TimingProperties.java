@@ -0,0 +1,34 @@
+package com.hediske.api_gateway.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Per-route, per-phase latency recording done by {@link RequestTimingWebFilter}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.timing")
+public class TimingProperties {
+
+    /** Client-side percentiles published as {@code gateway.latency.percentile}. */
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+
+    /** Also publish the histogram buckets, for backends that aggregate percentiles server-side. */
+    private boolean percentileHistogram = true;
+
+    private ServerTiming serverTiming = new ServerTiming();
+
+    @Data
+    public static class ServerTiming {
+        private boolean enabled = false;
+
+        /** Fraction of responses that carry a {@code Server-Timing} header. */
+        private double sampleRate = 0.01;
+    }
+}
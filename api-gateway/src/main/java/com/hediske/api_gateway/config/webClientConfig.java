@@ -1,10 +1,19 @@
 package com.hediske.api_gateway.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class webClientConfig {
     @Bean
@@ -12,4 +21,56 @@ public class webClientConfig {
     public WebClient.Builder loadBalancedWebClientBuilder() {
         return WebClient.builder();
     }
+
+    /**
+     * Client for gateway-originated calls to the business services (e.g. the dashboard fan-out).
+     */
+    @Bean
+    public WebClient serviceWebClient(WebClient.Builder loadBalancedWebClientBuilder) {
+        return loadBalancedWebClientBuilder.clone().build();
+    }
+
+    /**
+     * Dedicated connection pool for gateway to auth-service calls. Pool gauges are published as
+     * {@code reactor.netty.connection.provider.*{name=auth-service}} (active, idle, pending, total).
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider authServiceConnectionProvider(
+            @Value("${gateway.auth.client.max-connections:200}") int maxConnections,
+            @Value("${gateway.auth.client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${gateway.auth.client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${gateway.auth.client.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${gateway.auth.client.max-life-time:5m}") Duration maxLifeTime) {
+        return ConnectionProvider.builder("auth-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient authServiceWebClient(WebClient.Builder loadBalancedWebClientBuilder,
+            ConnectionProvider authServiceConnectionProvider,
+            @Value("${gateway.auth.client.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${gateway.auth.client.response-timeout:2s}") Duration responseTimeout,
+            @Value("${gateway.auth.client.http2:false}") boolean http2) {
+        HttpClient httpClient = HttpClient.create(authServiceConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        if (http2) {
+            // auth-service is plain HTTP, so HTTP/2 means prior-knowledge h2c; H2C alone skips the
+            // HTTP/1.1 upgrade round trip, so auth-service must accept h2c (server.http2.enabled)
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        }
+
+        // clone so the connector does not leak into other users of the shared builder
+        return loadBalancedWebClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
 }
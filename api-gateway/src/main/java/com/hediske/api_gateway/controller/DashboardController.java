@@ -0,0 +1,27 @@
+package com.hediske.api_gateway.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hediske.api_gateway.config.DashboardResponse;
+import com.hediske.api_gateway.services.DashboardService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    // X-User-Email/X-User-Role are set by JwtAuthFilter from the bearer token
+    @GetMapping
+    public Mono<DashboardResponse> getDashboard(@RequestHeader("X-User-Email") String email,
+            @RequestHeader("X-User-Role") String role) {
+        return dashboardService.getDashboard(email, role);
+    }
+}
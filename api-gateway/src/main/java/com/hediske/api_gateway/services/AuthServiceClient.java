@@ -0,0 +1,67 @@
+package com.hediske.api_gateway.services;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.hediske.api_gateway.config.BatchTokenIntrospectionResponse;
+import com.hediske.api_gateway.config.TokenIntrospectionResponse;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Remote token introspection against auth-service, over the long-lived pooled
+ * {@code authServiceWebClient}.
+ *
+ * Calls go through the auth-service circuit breaker and bulkhead. The bulkhead is the outer guard,
+ * so rejections for lack of capacity are not counted as auth-service failures. While the breaker is
+ * open or the bulkhead is full, calls fail fast with {@code CallNotPermittedException} or
+ * {@code BulkheadFullException}.
+ */
+@Service
+public class AuthServiceClient {
+
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public AuthServiceClient(@Qualifier("authServiceWebClient") WebClient webClient,
+            @Value("${gateway.auth.client.base-url:lb://auth-service}") String baseUrl,
+            CircuitBreaker authServiceCircuitBreaker,
+            Bulkhead authServiceBulkhead) {
+        this.webClient = webClient;
+        this.baseUrl = baseUrl;
+        this.circuitBreaker = authServiceCircuitBreaker;
+        this.bulkhead = authServiceBulkhead;
+    }
+
+    public Mono<TokenIntrospectionResponse> introspect(String token) {
+        return webClient.post()
+                .uri(baseUrl + "/api/auth/introspect")
+                .bodyValue(Map.of("token", token))
+                .retrieve()
+                .bodyToMono(TokenIntrospectionResponse.class)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    public Mono<List<TokenIntrospectionResponse>> introspectBatch(List<String> tokens) {
+        return webClient.post()
+                .uri(baseUrl + "/api/auth/introspect/batch")
+                .bodyValue(Map.of("tokens", tokens))
+                .retrieve()
+                .bodyToMono(BatchTokenIntrospectionResponse.class)
+                .map(BatchTokenIntrospectionResponse::getResults)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+}
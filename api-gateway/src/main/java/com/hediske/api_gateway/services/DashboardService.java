@@ -0,0 +1,92 @@
+package com.hediske.api_gateway.services;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hediske.api_gateway.config.DashboardResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the home-screen dashboard by calling nutrition-service and workout-service in parallel.
+ * Each leg has its own timeout; a failed or late leg is left out and reported in
+ * {@link DashboardResponse#getErrors()} as {@code timeout} or {@code unavailable} instead of failing
+ * the whole response.
+ */
+@Slf4j
+@Service
+public class DashboardService {
+
+    private static final String USER_EMAIL_HEADER = "X-User-Email";
+    private static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private final WebClient webClient;
+    private final Duration nutritionTimeout;
+    private final Duration workoutStatsTimeout;
+    private final Duration recentSessionsTimeout;
+    private final int recentSessionsSize;
+
+    public DashboardService(@Qualifier("serviceWebClient") WebClient webClient,
+            @Value("${gateway.dashboard.nutrition-timeout:2s}") Duration nutritionTimeout,
+            @Value("${gateway.dashboard.workout-stats-timeout:2s}") Duration workoutStatsTimeout,
+            @Value("${gateway.dashboard.recent-sessions-timeout:2s}") Duration recentSessionsTimeout,
+            @Value("${gateway.dashboard.recent-sessions-size:5}") int recentSessionsSize) {
+        this.webClient = webClient;
+        this.nutritionTimeout = nutritionTimeout;
+        this.workoutStatsTimeout = workoutStatsTimeout;
+        this.recentSessionsTimeout = recentSessionsTimeout;
+        this.recentSessionsSize = recentSessionsSize;
+    }
+
+    public Mono<DashboardResponse> getDashboard(String email, String role) {
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        Mono<Optional<JsonNode>> nutrition = leg("weeklyNutrition",
+                "lb://nutrition-service/api/nutrition/stats/week", email, role, nutritionTimeout, errors);
+        Mono<Optional<JsonNode>> workoutStats = leg("workoutStats",
+                "lb://workout-service/api/exercise/stats", email, role, workoutStatsTimeout, errors);
+        Mono<Optional<JsonNode>> recentSessions = leg("recentSessions",
+                "lb://workout-service/api/exercise/sessions?page=0&size=" + recentSessionsSize + "&sort=startTime,desc",
+                email, role, recentSessionsTimeout, errors);
+
+        return Mono.zip(nutrition, workoutStats, recentSessions)
+                .map(legs -> DashboardResponse.builder()
+                        .weeklyNutrition(legs.getT1().orElse(null))
+                        .workoutStats(legs.getT2().orElse(null))
+                        .recentSessions(legs.getT3().orElse(null))
+                        .partial(!errors.isEmpty())
+                        .errors(errors)
+                        .build());
+    }
+
+    private Mono<Optional<JsonNode>> leg(String name, String uri, String email, String role, Duration timeout,
+            Map<String, String> errors) {
+        return webClient.get()
+                .uri(uri)
+                .header(USER_EMAIL_HEADER, email)
+                .header(USER_ROLE_HEADER, role)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    // the detail (upstream URLs, exception text) stays in the log, clients get a reason
+                    log.warn("Dashboard leg {} failed: {}", name, e.toString());
+                    synchronized (errors) {
+                        errors.put(name, e instanceof TimeoutException ? "timeout" : "unavailable");
+                    }
+                    return Mono.just(Optional.empty());
+                });
+    }
+}
@@ -0,0 +1,109 @@
+package com.hediske.api_gateway.services;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-route hedging state: how long to wait before hedging and whether the budget allows it.
+ *
+ * The delay is the configured percentile of the most recent upstream latencies (a fixed-size ring
+ * of samples, re-sorted at most once per second) clamped to {@code [minDelay, maxDelay]};
+ * {@code initialDelay} is used until {@code minSamples} latencies have been recorded. The budget
+ * works like a retry budget: every request deposits {@code budgetRatio} of a token, every hedge
+ * spends a whole one, and at most {@code maxBurst} tokens can be saved up, so hedges stay at or
+ * below {@code budgetRatio} of the traffic even when the upstream is slow across the board.
+ */
+public class HedgingPolicy {
+
+    private static final long TOKEN = 1_000;
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final LongSupplier clock;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong balance = new AtomicLong();
+    private volatile long delayNanos;
+    private volatile long delayComputedAt;
+
+    public HedgingPolicy(double percentile, Duration initialDelay, Duration minDelay, Duration maxDelay,
+            int sampleWindow, int minSamples, double budgetRatio, int maxBurst) {
+        this(percentile, initialDelay, minDelay, maxDelay, sampleWindow, minSamples, budgetRatio, maxBurst,
+                System::nanoTime);
+    }
+
+    HedgingPolicy(double percentile, Duration initialDelay, Duration minDelay, Duration maxDelay,
+            int sampleWindow, int minSamples, double budgetRatio, int maxBurst, LongSupplier clock) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1): " + percentile);
+        }
+        this.percentile = percentile;
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.minSamples = minSamples;
+        this.depositPerRequest = Math.round(budgetRatio * TOKEN);
+        this.maxBalance = maxBurst * TOKEN;
+        this.clock = clock;
+        this.samples = new AtomicLongArray(sampleWindow);
+        this.delayNanos = initialDelayNanos;
+        this.delayComputedAt = clock.getAsLong();
+    }
+
+    /** Called once per eligible request; earns the budget for future hedges. */
+    public void onRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    /** Spends one hedge from the budget, or returns {@code false} if it is exhausted. */
+    public boolean tryAcquireHedge() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /** Records the latency of a completed upstream call. */
+    public void recordLatency(long nanos) {
+        long slot = recorded.getAndIncrement();
+        samples.set((int) (slot % samples.length()), nanos);
+    }
+
+    public Duration hedgeDelay() {
+        long now = clock.getAsLong();
+        if (now - delayComputedAt >= REFRESH_INTERVAL_NANOS) {
+            delayComputedAt = now;
+            delayNanos = computeDelay();
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private long computeDelay() {
+        long count = Math.min(recorded.get(), samples.length());
+        if (count < minSamples) {
+            return initialDelayNanos;
+        }
+        long[] sorted = new long[(int) count];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        long value = sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+    }
+}
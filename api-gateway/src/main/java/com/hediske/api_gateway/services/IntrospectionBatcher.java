@@ -0,0 +1,103 @@
+package com.hediske.api_gateway.services;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hediske.api_gateway.config.TokenIntrospectionResponse;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Collects introspection requests for up to {@code gateway.auth.batch.window} or
+ * {@code gateway.auth.batch.max-size} tokens, whichever comes first, and resolves them with one
+ * call to auth-service's {@code /api/auth/introspect/batch}.
+ *
+ * Requests arrive from many event-loop threads, so emissions into the single-subscriber queue are
+ * serialized with a lock instead of retried on contention. Each caller gives up after
+ * {@code gateway.auth.batch.timeout} if its batch never answers.
+ */
+@Slf4j
+@Service
+public class IntrospectionBatcher {
+
+    private final AuthServiceClient authServiceClient;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final Sinks.Many<PendingIntrospection> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable dispatcher;
+
+    public IntrospectionBatcher(AuthServiceClient authServiceClient,
+            @Value("${gateway.auth.batch.enabled:true}") boolean enabled,
+            @Value("${gateway.auth.batch.max-size:50}") int maxSize,
+            @Value("${gateway.auth.batch.window:5ms}") Duration window,
+            @Value("${gateway.auth.batch.timeout:5s}") Duration timeout) {
+        this.authServiceClient = authServiceClient;
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.dispatcher = queue.asFlux()
+                .bufferTimeout(maxSize, window)
+                .flatMap(this::dispatch)
+                .subscribe();
+    }
+
+    public Mono<TokenIntrospectionResponse> introspect(String token) {
+        if (!enabled) {
+            return authServiceClient.introspect(token);
+        }
+        return Mono.defer(() -> {
+            Sinks.One<TokenIntrospectionResponse> result = Sinks.one();
+            Sinks.EmitResult emitted;
+            synchronized (queue) {
+                emitted = queue.tryEmitNext(new PendingIntrospection(token, result));
+            }
+            if (emitted.isFailure()) {
+                return Mono.error(new IllegalStateException("Introspection batcher rejected the request: " + emitted));
+            }
+            return result.asMono().timeout(timeout);
+        });
+    }
+
+    private Mono<Void> dispatch(List<PendingIntrospection> batch) {
+        List<String> tokens = batch.stream().map(pending -> pending.token).toList();
+
+        return authServiceClient.introspectBatch(tokens)
+                .switchIfEmpty(Mono.error(new IllegalStateException("Empty batch introspection response")))
+                .doOnNext(results -> {
+                    if (results == null || results.size() != batch.size()) {
+                        throw new IllegalStateException("Batch introspection returned "
+                                + (results == null ? 0 : results.size()) + " results for " + batch.size() + " tokens");
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).result.tryEmitValue(results.get(i));
+                    }
+                })
+                .doOnError(e -> {
+                    log.warn("Batch introspection of {} tokens failed: {}", batch.size(), e.getMessage());
+                    batch.forEach(pending -> pending.result.tryEmitError(e));
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.dispose();
+    }
+
+    private static final class PendingIntrospection {
+        private final String token;
+        private final Sinks.One<TokenIntrospectionResponse> result;
+
+        private PendingIntrospection(String token, Sinks.One<TokenIntrospectionResponse> result) {
+            this.token = token;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.hediske.api_gateway.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hediske.api_gateway.config.TokenIntrospectionResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded cache of auth-service introspection results, keyed by a SHA-256 hash of the token
+ * so raw tokens are never held in memory longer than the request. Each entry lives until the lower
+ * of {@code gateway.auth.cache.ttl} and the token's own expiry.
+ *
+ * Hit, miss, eviction and size meters are published as {@code cache.*{cache=gateway.introspection}}.
+ */
+@Service
+public class IntrospectionCache {
+
+    private final Cache<String, Entry> cache;
+    private final Duration ttl;
+    private final boolean enabled;
+
+    public IntrospectionCache(MeterRegistry meterRegistry,
+            @Value("${gateway.auth.cache.enabled:true}") boolean enabled,
+            @Value("${gateway.auth.cache.max-size:10000}") long maxSize,
+            @Value("${gateway.auth.cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.introspection");
+    }
+
+    public TokenIntrospectionResponse get(String tokenHash) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(tokenHash);
+        return entry != null ? entry.response : null;
+    }
+
+    public void put(String tokenHash, TokenIntrospectionResponse response, Instant tokenExpiresAt) {
+        if (!enabled) {
+            return;
+        }
+        Duration lifetime = ttl;
+        if (tokenExpiresAt != null) {
+            Duration untilExpiry = Duration.between(Instant.now(), tokenExpiresAt);
+            if (untilExpiry.compareTo(lifetime) < 0) {
+                lifetime = untilExpiry;
+            }
+        }
+        if (lifetime.isNegative() || lifetime.isZero()) {
+            return;
+        }
+        cache.put(tokenHash, new Entry(response, lifetime.toNanos()));
+    }
+
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final TokenIntrospectionResponse response;
+        private final long lifetimeNanos;
+
+        private Entry(TokenIntrospectionResponse response, long lifetimeNanos) {
+            this.response = response;
+            this.lifetimeNanos = lifetimeNanos;
+        }
+    }
+
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            return value.lifetimeNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return value.lifetimeNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.hediske.api_gateway.services;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches auth-service's RS256 public keys from its JWKS endpoint so {@link JwtVerifier} can verify
+ * tokens without a per-request call. The set is refreshed every {@code refresh-interval}, and on
+ * demand (at most once per {@code min-refresh-interval}) when a token names an unknown {@code kid}.
+ * auth-service publishes new keys ahead of using them, so on-demand refreshes are rare.
+ */
+@Slf4j
+@Service
+public class JwksKeyProvider {
+
+    private final WebClient webClient;
+    private final String jwksUri;
+    private final Duration refreshInterval;
+    private final long minRefreshIntervalNanos;
+    private final AtomicLong lastRefresh = new AtomicLong(System.nanoTime());
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private Disposable refresher;
+
+    public JwksKeyProvider(@Qualifier("authServiceWebClient") WebClient webClient,
+            @Value("${gateway.auth.jwks.uri:lb://auth-service/.well-known/jwks.json}") String jwksUri,
+            @Value("${gateway.auth.jwks.refresh-interval:5m}") Duration refreshInterval,
+            @Value("${gateway.auth.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+        this.webClient = webClient;
+        this.jwksUri = jwksUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+    }
+
+    @PostConstruct
+    public void start() {
+        refresher = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> fetch())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    /** The cached key for {@code kid}, or {@code null} if it is not (yet) known. */
+    public PublicKey publicKey(String kid) {
+        return keys.get(kid);
+    }
+
+    /** Requests an early refresh, e.g. after seeing an unknown {@code kid}; rate limited. */
+    public void refreshSoon() {
+        long now = System.nanoTime();
+        long last = lastRefresh.get();
+        if (now - last >= minRefreshIntervalNanos && lastRefresh.compareAndSet(last, now)) {
+            fetch().subscribe();
+        }
+    }
+
+    private Mono<Void> fetch() {
+        return webClient.get()
+                .uri(jwksUri)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .doOnNext(jwks -> {
+                    keys = parse(jwks);
+                    lastRefresh.set(System.nanoTime());
+                    log.debug("Loaded {} signing keys from {}", keys.size(), jwksUri);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Could not refresh signing keys from {}: {}", jwksUri, e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static Map<String, PublicKey> parse(JsonNode jwks) {
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            if (!"RSA".equals(jwk.path("kty").asText()) || !jwk.hasNonNull("kid")) {
+                continue;
+            }
+            try {
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("n").asText()));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("e").asText()));
+                parsed.put(jwk.get("kid").asText(),
+                        KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Skipping malformed JWK {}: {}", jwk.path("kid").asText(), e.getMessage());
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+}
@@ -0,0 +1,92 @@
+package com.hediske.api_gateway.services;
+
+import java.security.Key;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifies tokens issued by auth-service without a network call: RS256 tokens against the public
+ * keys cached by {@link JwksKeyProvider}, selected by their {@code kid} header, and older HS256
+ * tokens with the shared secret. A token signed with a key not yet in the cache is reported
+ * {@link TokenVerification#incomplete incomplete}, so it falls back to introspection while the key
+ * set refreshes. The parser is built once; {@link JwtParser} is thread-safe.
+ */
+@Slf4j
+@Service
+public class JwtVerifier {
+
+    public static final String TYPE_CLAIM = "type";
+    public static final String ROLE_CLAIM = "role";
+    public static final String ACCESS_TOKEN_TYPE = "access";
+
+    private final JwksKeyProvider jwksKeyProvider;
+    private final JwtParser parser;
+
+    public JwtVerifier(@Value("${jwt.secret}") String secret, JwksKeyProvider jwksKeyProvider) {
+        Key hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.jwksKeyProvider = jwksKeyProvider;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                // chosen by the header's alg, so a public key can never verify an HS256 token
+                if (SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+                    return hmacKey;
+                }
+                Key key = header.getKeyId() != null ? jwksKeyProvider.publicKey(header.getKeyId()) : null;
+                if (key == null || !SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm())) {
+                    throw new UnknownSigningKeyException(header.getAlgorithm(), header.getKeyId());
+                }
+                return key;
+            }
+        }).build();
+    }
+
+    public TokenVerification verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (UnknownSigningKeyException e) {
+            log.debug("Token signed with unknown key: {}", e.getMessage());
+            jwksKeyProvider.refreshSoon();
+            return TokenVerification.incomplete(null, null, null);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Local token verification failed: {}", e.getMessage());
+            return TokenVerification.invalid();
+        }
+
+        Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        Object type = claims.get(TYPE_CLAIM);
+        Object role = claims.get(ROLE_CLAIM);
+
+        if (type != null && !ACCESS_TOKEN_TYPE.equals(type)) {
+            // password reset, email verification and refresh tokens never authorize API calls
+            return TokenVerification.invalid();
+        }
+
+        if (type == null || claims.getSubject() == null || !(role instanceof String)) {
+            return TokenVerification.incomplete(claims.getSubject(), role instanceof String ? (String) role : null,
+                    expiresAt);
+        }
+
+        return TokenVerification.verified(claims.getSubject(), (String) role, expiresAt);
+    }
+
+    private static final class UnknownSigningKeyException extends JwtException {
+        private UnknownSigningKeyException(String algorithm, String kid) {
+            super("no " + algorithm + " key with kid " + kid);
+        }
+    }
+}
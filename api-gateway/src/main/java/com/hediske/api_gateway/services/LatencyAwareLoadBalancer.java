@@ -0,0 +1,170 @@
+package com.hediske.api_gateway.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Power-of-two-choices balancer weighted by peak-EWMA latency and in-flight requests.
+ *
+ * Two distinct instances are sampled at random and the one with the lower
+ * {@code ewma * (inFlight + 1)} cost wins, so a slow or GC-pausing instance quickly sheds traffic
+ * while still receiving enough probes to recover. Latency is fed back through the
+ * {@link LoadBalancerLifecycle} callbacks the gateway and {@code @LoadBalanced} WebClients invoke
+ * around each call. The EWMA decays with time constant {@code decay} and jumps straight to any
+ * sample above it (peak sensitivity); failed calls count as at least {@code failurePenalty}.
+ */
+@Slf4j
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier clock;
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId, Duration decay, Duration failurePenalty) {
+        this(serviceInstanceListSupplierProvider, serviceId, decay, failurePenalty, System::nanoTime);
+    }
+
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId, Duration decay, Duration failurePenalty, LongSupplier clock) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        long now = clock.getAsLong();
+        return new DefaultResponse(statsFor(a).cost(now) <= statsFor(b).cost(now) ? a : b);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(clock.getAsLong());
+        }
+        statsFor(lbResponse.getServer()).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats instance = statsFor(lbResponse.getServer());
+        instance.inFlight.decrementAndGet();
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            // a cancelled call (e.g. a hedge that lost) only says how long we waited, not the latency
+            return;
+        }
+
+        Object context = completionContext.getLoadBalancerRequest() != null
+                ? completionContext.getLoadBalancerRequest().getContext() : null;
+        if (!(context instanceof TimedRequestContext timed) || timed.getRequestStartTime() == 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long latency = now - timed.getRequestStartTime();
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        instance.observe(latency, now);
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        String key = instance.getInstanceId() != null ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+        return stats.computeIfAbsent(key, k -> new InstanceStats());
+    }
+
+    private final class InstanceStats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+        private volatile long lastUpdate;
+
+        private double cost(long now) {
+            // an idle instance's estimate decays toward zero so it gets probed again
+            double ewma = Double.longBitsToDouble(ewmaBits.get());
+            double decayed = ewma * Math.exp(-Math.max(0, now - lastUpdate) / decayNanos);
+            return decayed * (inFlight.get() + 1);
+        }
+
+        private void observe(long latencyNanos, long now) {
+            double weight = Math.exp(-Math.max(0, now - lastUpdate) / decayNanos);
+            while (true) {
+                long bits = ewmaBits.get();
+                double current = Double.longBitsToDouble(bits);
+                double next = latencyNanos > current ? latencyNanos : current * weight + latencyNanos * (1 - weight);
+                if (ewmaBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                    lastUpdate = now;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hediske.api_gateway.services;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Lock-free token buckets for one route, one per user.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the bucket's theoretical arrival time (GCRA),
+ * which is equivalent to a token bucket of {@code capacity} tokens refilled at
+ * {@code refillPerSecond}. A permit is one CAS, so concurrent requests never block each other.
+ * Buckets not touched for {@code idleTimeout} are evicted, which bounds memory to active users.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, Duration idleTimeout, long maxBuckets) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity must be >= 1 and refill rate > 0");
+        }
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxBuckets)
+                .build();
+    }
+
+    /**
+     * Takes one token from {@code key}'s bucket.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = bucket.get();
+            long next = (arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival) + nanosPerToken;
+            long allowedAt = next - burstNanos;
+            if (allowedAt - now > 0) {
+                return allowedAt - now;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long trackedBuckets() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,123 @@
+package com.hediske.api_gateway.services;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hediske.api_gateway.config.TokenIntrospectionResponse;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves a bearer token to the user it authenticates.
+ *
+ * In {@code local} mode the token is verified in-process and auth-service is only called for
+ * tokens that are signed correctly but lack the email/role claims (e.g. issued before those claims
+ * existed), and only when {@code gateway.auth.remote-fallback} is enabled. In {@code remote} mode
+ * every token is introspected by auth-service. Remote results are served from
+ * {@link IntrospectionCache} while they are fresh, and concurrent misses for the same token share
+ * a single in-flight call so a burst of parallel requests costs auth-service one introspection.
+ * Distinct tokens are grouped into batch calls by {@link IntrospectionBatcher}.
+ *
+ * When auth-service is shed by its circuit breaker or bulkhead and
+ * {@code gateway.auth.degraded-validation} is enabled, tokens whose signature and expiry verify
+ * locally are accepted with the claims they carry (role defaults to {@code USER}); each such
+ * decision increments {@code gateway.auth.degraded}.
+ */
+@Slf4j
+@Service
+public class TokenIntrospectionService {
+
+    public enum Mode {
+        LOCAL, REMOTE
+    }
+
+    private final JwtVerifier jwtVerifier;
+    private final IntrospectionBatcher introspectionBatcher;
+    private final IntrospectionCache introspectionCache;
+    private final Mode mode;
+    private final boolean remoteFallback;
+    private final boolean degradedValidation;
+    private final Counter degradedCounter;
+    private final ConcurrentMap<String, Mono<TokenIntrospectionResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public TokenIntrospectionService(JwtVerifier jwtVerifier,
+            IntrospectionBatcher introspectionBatcher,
+            IntrospectionCache introspectionCache,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.auth.verification-mode:local}") Mode mode,
+            @Value("${gateway.auth.remote-fallback:true}") boolean remoteFallback,
+            @Value("${gateway.auth.degraded-validation:true}") boolean degradedValidation) {
+        this.jwtVerifier = jwtVerifier;
+        this.introspectionBatcher = introspectionBatcher;
+        this.introspectionCache = introspectionCache;
+        this.mode = mode;
+        this.remoteFallback = remoteFallback;
+        this.degradedValidation = degradedValidation;
+        this.degradedCounter = meterRegistry.counter("gateway.auth.degraded");
+    }
+
+    public Mono<TokenIntrospectionResponse> introspect(String token) {
+        TokenVerification verification = jwtVerifier.verify(token);
+        if (mode == Mode.REMOTE) {
+            return remoteIntrospect(token, verification);
+        }
+
+        if (verification.isVerified()) {
+            return Mono.just(active(verification.getEmail(), verification.getRole()));
+        }
+        if (verification.isInvalid() || !remoteFallback) {
+            return Mono.just(inactive());
+        }
+
+        log.debug("Token lacks email/role claims, falling back to auth-service introspection");
+        return remoteIntrospect(token, verification);
+    }
+
+    private Mono<TokenIntrospectionResponse> remoteIntrospect(String token, TokenVerification verification) {
+        String tokenHash = IntrospectionCache.hash(token);
+        TokenIntrospectionResponse cached = introspectionCache.get(tokenHash);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return inFlight.computeIfAbsent(tokenHash, key -> introspectionBatcher.introspect(token)
+                .doOnNext(response -> introspectionCache.put(key, response, verification.getExpiresAt()))
+                // deregister before cache() replays the signal, so no caller can join a finished call
+                .doOnTerminate(() -> inFlight.remove(key))
+                .cache())
+                .onErrorResume(e -> degradedValidation && isAuthServiceShed(e),
+                        e -> Mono.fromSupplier(() -> degraded(verification)));
+    }
+
+    private TokenIntrospectionResponse degraded(TokenVerification verification) {
+        degradedCounter.increment();
+        if (verification.isInvalid() || verification.getEmail() == null) {
+            return inactive();
+        }
+        log.debug("auth-service unavailable, accepting locally verified token for {}", verification.getEmail());
+        return active(verification.getEmail(), verification.getRole() != null ? verification.getRole() : "USER");
+    }
+
+    private static boolean isAuthServiceShed(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+
+    private static TokenIntrospectionResponse active(String email, String role) {
+        TokenIntrospectionResponse response = new TokenIntrospectionResponse();
+        response.setActive(true);
+        response.setEmail(email);
+        response.setRole(role);
+        return response;
+    }
+
+    private static TokenIntrospectionResponse inactive() {
+        return new TokenIntrospectionResponse();
+    }
+}
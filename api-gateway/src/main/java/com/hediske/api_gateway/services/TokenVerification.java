@@ -0,0 +1,49 @@
+package com.hediske.api_gateway.services;
+
+import java.time.Instant;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of checking a bearer token in-process with {@link JwtVerifier}.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TokenVerification {
+
+    public enum Status {
+        /** Signature, expiry and type are valid and the token carries email and role. */
+        VERIFIED,
+        /** Signature is valid but the token lacks the claims needed to skip introspection. */
+        INCOMPLETE,
+        /** Bad signature, expired, malformed or not an access token. */
+        INVALID
+    }
+
+    private final Status status;
+    private final String email;
+    private final String role;
+    private final Instant expiresAt;
+
+    public static TokenVerification verified(String email, String role, Instant expiresAt) {
+        return new TokenVerification(Status.VERIFIED, email, role, expiresAt);
+    }
+
+    public static TokenVerification incomplete(String email, String role, Instant expiresAt) {
+        return new TokenVerification(Status.INCOMPLETE, email, role, expiresAt);
+    }
+
+    public static TokenVerification invalid() {
+        return new TokenVerification(Status.INVALID, null, null, null);
+    }
+
+    public boolean isVerified() {
+        return status == Status.VERIFIED;
+    }
+
+    public boolean isInvalid() {
+        return status == Status.INVALID;
+    }
+}
@@ -0,0 +1,182 @@
+package com.hediske.api_gateway.benchmarks;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.WebFilterChain;
+
+import com.hediske.api_gateway.config.JwtAuthFilter;
+import com.hediske.api_gateway.config.PublicRouteMatcher;
+import com.hediske.api_gateway.config.TokenIntrospectionResponse;
+import com.hediske.api_gateway.services.JwksKeyProvider;
+import com.hediske.api_gateway.services.JwtVerifier;
+import com.hediske.api_gateway.services.TokenIntrospectionService;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-request cost of {@link JwtAuthFilter} against a no-op {@link WebFilterChain}.
+ *
+ * {@code publicRoute}, {@code validToken} and {@code invalidToken} use a stubbed introspection
+ * result, so they measure only the filter: path matching, header parsing, request mutation and
+ * the {@code unauthorized()} error body. {@code validTokenLocalVerification} adds real RS256
+ * verification through {@link JwtVerifier}, and {@code baseline} is the cost of building the
+ * exchange that every benchmark pays. Run with {@code -prof gc} (the benchmark profile does) for
+ * {@code gc.alloc.rate.norm}, the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    static final String SECRET = "QNP5EZNjpOBl++i0jpN06cmaoeCA+d3VMoFHiOns7G4=";
+    static final String VALID_TOKEN = "valid-token";
+    static final String KEY_ID = "benchmark-key";
+
+    private static final WebFilterChain NOOP_CHAIN = exchange -> Mono.empty();
+
+    // shared so each exchange costs what the server's does, not a fresh codec setup
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final DefaultWebSessionManager SESSIONS = new DefaultWebSessionManager();
+    private static final AcceptHeaderLocaleContextResolver LOCALES = new AcceptHeaderLocaleContextResolver();
+
+    private JwtAuthFilter stubbedFilter;
+    private JwtAuthFilter localVerificationFilter;
+    private String signedToken;
+
+    @Setup
+    public void setUp() {
+        PublicRouteMatcher publicRouteMatcher = PublicRouteMatcher.compile(PublicRouteMatcherBenchmark.PUBLIC_ROUTES);
+        stubbedFilter = new JwtAuthFilter(new StubTokenIntrospectionService(), publicRouteMatcher);
+
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.RS256);
+        JwtVerifier jwtVerifier = new JwtVerifier(SECRET, new StaticJwksKeyProvider(KEY_ID, keyPair.getPublic()));
+        TokenIntrospectionService localService = new TokenIntrospectionService(jwtVerifier, null, null,
+                new SimpleMeterRegistry(), TokenIntrospectionService.Mode.LOCAL, false, false);
+        localVerificationFilter = new JwtAuthFilter(localService, publicRouteMatcher);
+
+        signedToken = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, KEY_ID)
+                .setSubject("jane@example.com")
+                .claim(JwtVerifier.TYPE_CLAIM, JwtVerifier.ACCESS_TOKEN_TYPE)
+                .claim(JwtVerifier.ROLE_CLAIM, "USER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    @Benchmark
+    public ServerWebExchange baseline() {
+        ServerWebExchange exchange = exchange("/api/exercise/stats", VALID_TOKEN);
+        NOOP_CHAIN.filter(exchange).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange publicRoute() {
+        return run(stubbedFilter, exchange("/api/auth/authenticate", null));
+    }
+
+    @Benchmark
+    public ServerWebExchange validToken() {
+        return run(stubbedFilter, exchange("/api/exercise/stats", VALID_TOKEN));
+    }
+
+    @Benchmark
+    public ServerWebExchange invalidToken() {
+        return run(stubbedFilter, exchange("/api/exercise/stats", "expired-token"));
+    }
+
+    @Benchmark
+    public ServerWebExchange validTokenLocalVerification() {
+        return run(localVerificationFilter, exchange("/api/exercise/stats", signedToken));
+    }
+
+    private static ServerWebExchange run(JwtAuthFilter filter, ServerWebExchange exchange) {
+        filter.filter(exchange, NOOP_CHAIN).block();
+        return exchange;
+    }
+
+    private static ServerWebExchange exchange(String path, String token) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return new DefaultServerWebExchange(request.build(), new MockServerHttpResponse(), SESSIONS, CODECS, LOCALES);
+    }
+
+    /**
+     * Serves one fixed key instead of fetching auth-service's JWKS.
+     */
+    private static final class StaticJwksKeyProvider extends JwksKeyProvider {
+
+        private final String kid;
+        private final PublicKey key;
+
+        private StaticJwksKeyProvider(String kid, PublicKey key) {
+            super(WebClient.create(), "http://localhost/.well-known/jwks.json", Duration.ofMinutes(5),
+                    Duration.ofSeconds(30));
+            this.kid = kid;
+            this.key = key;
+        }
+
+        @Override
+        public PublicKey publicKey(String requestedKid) {
+            return kid.equals(requestedKid) ? key : null;
+        }
+    }
+
+    /**
+     * Answers from prebuilt responses so the benchmark does not measure token verification.
+     */
+    private static final class StubTokenIntrospectionService extends TokenIntrospectionService {
+
+        private final Mono<TokenIntrospectionResponse> active;
+        private final Mono<TokenIntrospectionResponse> inactive = Mono.just(new TokenIntrospectionResponse());
+
+        private StubTokenIntrospectionService() {
+            super(null, null, null, new SimpleMeterRegistry(), Mode.LOCAL, false, false);
+            TokenIntrospectionResponse response = new TokenIntrospectionResponse();
+            response.setActive(true);
+            response.setEmail("jane@example.com");
+            response.setRole("USER");
+            this.active = Mono.just(response);
+        }
+
+        @Override
+        public Mono<TokenIntrospectionResponse> introspect(String token) {
+            return VALID_TOKEN.equals(token) ? active : inactive;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.hediske.api_gateway.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.AntPathMatcher;
+
+import com.hediske.api_gateway.config.PublicRouteMatcher;
+
+/**
+ * Compares the compiled public-route trie with the previous per-request
+ * {@code publicRoutes.stream().anyMatch(AntPathMatcher::match)} check over 10k request paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicRouteMatcherBenchmark {
+
+    static final int PATH_COUNT = 10_000;
+
+    static final List<String> PUBLIC_ROUTES = List.of(
+            "/api/auth/**", "/swagger-ui/**", "/api/**/v3/api-docs", "/swagger-resources/**",
+            "/webjars/swagger-ui/index.html", "/webjars/**", "/actuator/**", "/swagger-ui.html",
+            "/v3/api-docs/**", "/api-docs/**", "/favicon.ico", "/error");
+
+    private static final String[] SAMPLE_PATHS = {
+            "/api/auth/authenticate", "/api/auth/introspect", "/api/nutrition/meals", "/api/nutrition/meals/day",
+            "/api/nutrition/stats/week", "/api/nutrition/admin/food-items/42", "/api/exercise",
+            "/api/exercise/17", "/api/exercise/search", "/api/exercise/sessions/3/end", "/api/exercise/stats",
+            "/api/exercise/v3/api-docs", "/swagger-ui/index.html", "/actuator/health", "/favicon.ico"
+    };
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private PublicRouteMatcher publicRouteMatcher;
+    private String[] paths;
+
+    @Setup
+    public void setUp() {
+        publicRouteMatcher = PublicRouteMatcher.compile(PUBLIC_ROUTES);
+        Random random = new Random(42);
+        paths = new String[PATH_COUNT];
+        for (int i = 0; i < PATH_COUNT; i++) {
+            paths[i] = SAMPLE_PATHS[random.nextInt(SAMPLE_PATHS.length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATH_COUNT)
+    public int streamAntPathMatcher() {
+        int matched = 0;
+        for (String path : paths) {
+            if (PUBLIC_ROUTES.stream().anyMatch(pattern -> antPathMatcher.match(pattern, path))) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATH_COUNT)
+    public int compiledMatcher() {
+        int matched = 0;
+        for (String path : paths) {
+            if (publicRouteMatcher.matches(path)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,194 @@
+package com.hediske.api_gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+class HedgingFilterTests {
+
+	private final List<DisposableServer> servers = new CopyOnWriteArrayList<>();
+	private final List<CompletionContext.Status> completions = new CopyOnWriteArrayList<>();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void stopServers() {
+		servers.forEach(DisposableServer::disposeNow);
+	}
+
+	@Test
+	void hedgesASlowPrimaryAndStreamsTheFasterResponse() {
+		DisposableServer primary = upstream("primary", Duration.ofSeconds(2));
+		DisposableServer alternate = upstream("alternate", Duration.ZERO);
+		MockServerWebExchange exchange = exchange(primary, route(Map.of()));
+
+		filter(alternate, null).filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		assertEquals("alternate", exchange.getResponse().getHeaders().getFirst("X-Instance"));
+		assertEquals("alternate", body(exchange));
+		assertEquals(1.0, meterRegistry.counter("gateway.hedging.wins", "route", "workout-route").count());
+		assertEquals(List.of(CompletionContext.Status.SUCCESS), completions);
+	}
+
+	@Test
+	void reportsALosingHedgeAsDiscarded() {
+		DisposableServer primary = upstream("primary", Duration.ofMillis(300));
+		DisposableServer alternate = upstream("alternate", Duration.ofSeconds(2));
+		MockServerWebExchange exchange = exchange(primary, route(Map.of()));
+
+		filter(alternate, null).filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+		assertEquals("primary", body(exchange));
+		assertEquals(0.0, meterRegistry.counter("gateway.hedging.wins", "route", "workout-route").count());
+		assertEquals(List.of(CompletionContext.Status.DISCARD), completions);
+	}
+
+	@Test
+	void appliesTheRouteResponseTimeout() {
+		DisposableServer primary = upstream("primary", Duration.ofSeconds(2));
+		DisposableServer alternate = upstream("alternate", Duration.ofSeconds(2));
+		MockServerWebExchange exchange = exchange(primary, route(Map.of(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, 200)));
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> filter(alternate, Duration.ofSeconds(10)).filter(exchange, ex -> Mono.empty()).block(Duration.ofSeconds(5)));
+
+		assertEquals(HttpStatus.GATEWAY_TIMEOUT, e.getStatusCode());
+	}
+
+	private DisposableServer upstream(String name, Duration delay) {
+		DisposableServer server = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes.get("/api/exercise/stats", (request, response) -> Mono.delay(delay)
+						.then(response.header("X-Instance", name).sendString(Mono.just(name)).then())))
+				.bindNow();
+		servers.add(server);
+		return server;
+	}
+
+	private static Route route(Map<String, Object> metadata) {
+		return Route.async()
+				.id("workout-route")
+				.uri(URI.create("lb://workout-service"))
+				.predicate(exchange -> true)
+				.metadata(metadata)
+				.build();
+	}
+
+	private static MockServerWebExchange exchange(DisposableServer primary, Route route) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/exercise/stats"));
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+				URI.create("http://localhost:" + primary.port() + "/api/exercise/stats"));
+		return exchange;
+	}
+
+	private static String body(MockServerWebExchange exchange) {
+		Connection connection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+		try {
+			return connection.inbound().receive().aggregate().asString().block(Duration.ofSeconds(5));
+		}
+		finally {
+			connection.dispose();
+		}
+	}
+
+	private HedgingFilter filter(DisposableServer alternate, Duration globalResponseTimeout) {
+		HedgingProperties properties = new HedgingProperties();
+		properties.setEnabled(true);
+		properties.setRoutes(List.of("workout-route"));
+		properties.setInitialDelay(Duration.ofMillis(50));
+		properties.setBudgetRatio(1.0);
+
+		HttpClientProperties httpClientProperties = new HttpClientProperties();
+		httpClientProperties.setResponseTimeout(globalResponseTimeout);
+
+		ServiceInstance instance = new DefaultServiceInstance("alternate", "workout-service", "localhost",
+				alternate.port(), false);
+		ObjectProvider<List<HttpHeadersFilter>> headersFilters = new StaticListableBeanFactory()
+				.getBeanProvider(ResolvableType.forClassWithGenerics(List.class, HttpHeadersFilter.class));
+		return new HedgingFilter(properties, HttpClient.create(), httpClientProperties,
+				new StubLoadBalancerClientFactory(instance, new RecordingLifecycle()), headersFilters, meterRegistry);
+	}
+
+	private final class RecordingLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+		@Override
+		public void onStart(Request<Object> request) {
+		}
+
+		@Override
+		public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+		}
+
+		@Override
+		public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+			completions.add(completionContext.status());
+		}
+	}
+
+	private static final class StubLoadBalancerClientFactory extends LoadBalancerClientFactory {
+
+		private final ReactorServiceInstanceLoadBalancer loadBalancer;
+		private final LoadBalancerLifecycle<?, ?, ?> lifecycle;
+
+		private StubLoadBalancerClientFactory(ServiceInstance instance, LoadBalancerLifecycle<?, ?, ?> lifecycle) {
+			super(new LoadBalancerClientsProperties());
+			this.loadBalancer = request -> Mono.just(new DefaultResponse(instance));
+			this.lifecycle = lifecycle;
+		}
+
+		@Override
+		public <T> T getInstance(String name, Class<T> type) {
+			return type.cast(loadBalancer);
+		}
+
+		@Override
+		public <T> Map<String, T> getInstances(String name, Class<T> type) {
+			return Map.of("recording", type.cast(lifecycle));
+		}
+
+		@Override
+		public LoadBalancerProperties getProperties(String serviceId) {
+			return new LoadBalancerProperties();
+		}
+	}
+}
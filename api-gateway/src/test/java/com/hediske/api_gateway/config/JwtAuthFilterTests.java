@@ -0,0 +1,88 @@
+package com.hediske.api_gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.hediske.api_gateway.services.TokenIntrospectionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class JwtAuthFilterTests {
+
+	private final JwtAuthFilter filter = new JwtAuthFilter(new StubTokenIntrospectionService(),
+			PublicRouteMatcher.compile(List.of("/api/auth/**")));
+
+	@Test
+	void stripsClientSuppliedIdentityOnPublicRoutes() {
+		HttpHeaders forwarded = filter(MockServerHttpRequest.post("/api/auth/authenticate")
+				.header("X-User-Email", "victim@example.com")
+				.header("X-User-Role", "ADMIN"));
+
+		assertNull(forwarded.getFirst("X-User-Email"));
+		assertNull(forwarded.getFirst("X-User-Role"));
+	}
+
+	@Test
+	void replacesClientSuppliedIdentityWithTheTokenOwner() {
+		HttpHeaders forwarded = filter(MockServerHttpRequest.get("/api/exercise/stats")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer valid")
+				.header("X-User-Email", "victim@example.com"));
+
+		assertEquals(List.of("jane@example.com"), forwarded.get("X-User-Email"));
+		assertEquals(List.of("USER"), forwarded.get("X-User-Role"));
+	}
+
+	@Test
+	void answersIntrospectionErrorsWithAFixedMessage() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/exercise/stats")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer failing"));
+
+		filter.filter(exchange, e -> Mono.empty()).block();
+
+		assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+		String body = exchange.getResponse().getBodyAsString().block();
+		assertTrue(body.startsWith("{\"error\": \"Error validating token\", \"timestamp\": \""), body);
+		assertFalse(body.contains("auth-service"), body);
+	}
+
+	private HttpHeaders filter(MockServerHttpRequest.BaseBuilder<?> request) {
+		AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+		filter.filter(MockServerWebExchange.from(request), exchange -> {
+			forwarded.set(exchange);
+			return Mono.empty();
+		}).block();
+		return forwarded.get().getRequest().getHeaders();
+	}
+
+	private static final class StubTokenIntrospectionService extends TokenIntrospectionService {
+
+		private StubTokenIntrospectionService() {
+			super(null, null, null, new SimpleMeterRegistry(), Mode.LOCAL, false, false);
+		}
+
+		@Override
+		public Mono<TokenIntrospectionResponse> introspect(String token) {
+			if ("failing".equals(token)) {
+				return Mono.error(new IllegalStateException("Connection refused: \"auth-service\""));
+			}
+			TokenIntrospectionResponse response = new TokenIntrospectionResponse();
+			response.setActive("valid".equals(token));
+			response.setEmail("jane@example.com");
+			response.setRole("USER");
+			return Mono.just(response);
+		}
+	}
+}
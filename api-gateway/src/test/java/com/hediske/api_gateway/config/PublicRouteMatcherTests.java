@@ -0,0 +1,41 @@
+package com.hediske.api_gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+class PublicRouteMatcherTests {
+
+	private static final List<String> ROUTES = List.of(
+			"/api/auth/**", "/swagger-ui/**", "/api/**/v3/api-docs", "/swagger-resources/**",
+			"/webjars/swagger-ui/index.html", "/webjars/**", "/actuator/**", "/swagger-ui.html",
+			"/v3/api-docs/**", "/api-docs/**", "/favicon.ico", "/error", "/api/*/health");
+
+	@Test
+	void matchesLikeAntPathMatcher() {
+		PublicRouteMatcher matcher = PublicRouteMatcher.compile(ROUTES);
+		AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+		List<String> paths = List.of(
+				"/api/auth", "/api/auth/", "/api/auth/authenticate", "/api/auth/introspect/batch", "/api/authx",
+				"/api/nutrition/v3/api-docs", "/api/a/b/v3/api-docs", "/api/v3/api-docs", "/api/nutrition/v3",
+				"/api/nutrition/meals", "/api/exercise/17", "/api/exercise/health", "/api/exercise/x/health",
+				"/swagger-ui.html", "/swagger-ui", "/swagger-ui/index.html", "/webjars/swagger-ui/index.html",
+				"/actuator", "/actuator/metrics/cache.gets", "/favicon.ico", "/favicon.icox", "/error",
+				"/error/x", "/", "", "//api//auth//x");
+
+		for (String path : paths) {
+			boolean expected = ROUTES.stream().anyMatch(pattern -> antPathMatcher.match(pattern, path));
+			assertEquals(expected, matcher.matches(path), path);
+		}
+	}
+
+	@Test
+	void rejectsPartialSegmentWildcards() {
+		assertThrows(IllegalArgumentException.class, () -> PublicRouteMatcher.compile(List.of("/api/*.json")));
+	}
+}
@@ -0,0 +1,109 @@
+package com.hediske.api_gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ResponseCacheFilterTests {
+
+	private final ResponseCacheFilter filter = new ResponseCacheFilter(properties(), new SimpleMeterRegistry());
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	@Test
+	void servesRepeatedGetsFromTheCache() {
+		assertEquals("squat", get(upstream("squat")));
+		assertEquals("squat", get(upstream("lunge")));
+
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	@Test
+	void writesClearTheCache() {
+		get(upstream("squat"));
+		write();
+
+		assertEquals("lunge", get(upstream("lunge")));
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	@Test
+	void doesNotCacheAGetThatAWriteOvertook() {
+		// the write lands while the GET waits for the upstream, which then returns the old body
+		GatewayFilterChain overtaken = exchange -> {
+			write();
+			return respond(exchange, "stale");
+		};
+		assertEquals("stale", get(overtaken));
+
+		assertEquals("fresh", get(upstream("fresh")));
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	@Test
+	void doesNotCacheEncodedPrivateOrCookieSettingResponses() {
+		List<Map.Entry<String, String>> uncacheable = List.of(
+				Map.entry(HttpHeaders.CONTENT_ENCODING, "gzip"),
+				Map.entry(HttpHeaders.CACHE_CONTROL, "private, max-age=60"),
+				Map.entry(HttpHeaders.CACHE_CONTROL, "no-store"),
+				Map.entry(HttpHeaders.SET_COOKIE, "session=abc"));
+
+		for (Map.Entry<String, String> header : uncacheable) {
+			get(exchange -> {
+				exchange.getResponse().getHeaders().add(header.getKey(), header.getValue());
+				return respond(exchange, "squat");
+			});
+		}
+		get(upstream("squat"));
+
+		assertEquals(uncacheable.size() + 1, upstreamCalls.get());
+	}
+
+	private String get(GatewayFilterChain chain) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/exercise/17"));
+		filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+		return exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5));
+	}
+
+	private void write() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.put("/api/exercise/17"));
+		filter.filter(exchange, e -> {
+			e.getResponse().setStatusCode(HttpStatus.OK);
+			return Mono.empty();
+		}).block(Duration.ofSeconds(5));
+	}
+
+	private GatewayFilterChain upstream(String body) {
+		return exchange -> respond(exchange, body);
+	}
+
+	private Mono<Void> respond(ServerWebExchange exchange, String body) {
+		upstreamCalls.incrementAndGet();
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+	}
+
+	private static ResponseCacheProperties properties() {
+		ResponseCacheProperties.Rule rule = new ResponseCacheProperties.Rule();
+		rule.setPaths(List.of("/api/exercise/{id}"));
+		rule.setInvalidateOn(List.of("/api/exercise/**"));
+		ResponseCacheProperties properties = new ResponseCacheProperties();
+		properties.setRules(Map.of("exercises", rule));
+		return properties;
+	}
+}
@@ -0,0 +1,117 @@
+package com.hediske.api_gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.hediske.api_gateway.config.AuthServiceResilienceConfig;
+import com.hediske.api_gateway.config.TokenIntrospectionResponse;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the introspection path against a local stub of auth-service that always fails.
+ */
+class AuthServiceCircuitBreakerTests {
+
+	private static final String SECRET = "QNP5EZNjpOBl++i0jpN06cmaoeCA+d3VMoFHiOns7G4=";
+	private static final String OTHER_SECRET = "c2VjcmV0LWtleS10aGF0LWlzLWxvbmctZW5vdWdoLWZvci1obWFj";
+
+	private HttpServer stub;
+	private final AtomicInteger stubCalls = new AtomicInteger();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private CircuitBreaker circuitBreaker;
+	private TokenIntrospectionService service;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		stub.createContext("/api/auth/introspect", exchange -> {
+			stubCalls.incrementAndGet();
+			byte[] body = "{\"error\":\"boom\"}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(500, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		stub.start();
+
+		AuthServiceResilienceConfig resilience = new AuthServiceResilienceConfig();
+		circuitBreaker = resilience.authServiceCircuitBreaker(meterRegistry, 50, 100, Duration.ofSeconds(5),
+				4, 4, Duration.ofMinutes(1), 1);
+		AuthServiceClient client = new AuthServiceClient(WebClient.builder().build(),
+				"http://localhost:" + stub.getAddress().getPort(), circuitBreaker,
+				resilience.authServiceBulkhead(meterRegistry, 10, Duration.ZERO));
+
+		JwksKeyProvider jwksKeyProvider = new JwksKeyProvider(WebClient.builder().build(),
+				"http://localhost:" + stub.getAddress().getPort() + "/.well-known/jwks.json", Duration.ofMinutes(5),
+				Duration.ofSeconds(30));
+		service = new TokenIntrospectionService(new JwtVerifier(SECRET, jwksKeyProvider),
+				new IntrospectionBatcher(client, false, 50, Duration.ofMillis(5), Duration.ofSeconds(5)),
+				new IntrospectionCache(meterRegistry, false, 100, Duration.ofMinutes(5)),
+				meterRegistry, TokenIntrospectionService.Mode.REMOTE, true, true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		stub.stop(0);
+	}
+
+	@Test
+	void opensAfterFailuresAndValidatesLocallyWhileOpen() {
+		String token = legacyToken(SECRET, "jane@example.com");
+
+		for (int i = 0; i < 4; i++) {
+			assertThrows(WebClientResponseException.class, () -> service.introspect(token).block());
+		}
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+		TokenIntrospectionResponse response = service.introspect(token).block();
+
+		assertTrue(response.isActive());
+		assertEquals("jane@example.com", response.getEmail());
+		assertEquals("USER", response.getRole());
+		assertEquals(4, stubCalls.get());
+		assertEquals(1, meterRegistry.counter("gateway.auth.circuitbreaker.transitions",
+				"from", "CLOSED", "to", "OPEN").count());
+		assertEquals(1, meterRegistry.counter("gateway.auth.degraded").count());
+	}
+
+	@Test
+	void rejectsTokensThatFailLocalVerificationWhileOpen() {
+		circuitBreaker.transitionToOpenState();
+
+		TokenIntrospectionResponse response = service.introspect(legacyToken(OTHER_SECRET, "jane@example.com")).block();
+
+		assertFalse(response.isActive());
+		assertEquals(0, stubCalls.get());
+	}
+
+	private static String legacyToken(String secret, String subject) {
+		return Jwts.builder()
+				.setSubject(subject)
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+}
@@ -0,0 +1,52 @@
+package com.hediske.api_gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.hediske.api_gateway.config.DashboardResponse;
+
+import reactor.core.publisher.Mono;
+
+class DashboardServiceTests {
+
+	@Test
+	void reportsFailedLegsWithGenericReasons() {
+		WebClient webClient = WebClient.builder()
+				.exchangeFunction(request -> {
+					String path = request.url().getPath();
+					if (path.endsWith("/stats/week")) {
+						return Mono.just(ClientResponse.create(HttpStatus.OK)
+								.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+								.body("{\"calories\":1200}")
+								.build());
+					}
+					if (path.endsWith("/stats")) {
+						return Mono.error(new ConnectException("Connection refused: workout-service/10.0.0.7:8083"));
+					}
+					return Mono.never();
+				})
+				.build();
+		DashboardService service = new DashboardService(webClient, Duration.ofSeconds(1), Duration.ofSeconds(1),
+				Duration.ofMillis(100), 5);
+
+		DashboardResponse response = service.getDashboard("jane@example.com", "USER").block();
+
+		assertTrue(response.isPartial());
+		assertEquals(1200, response.getWeeklyNutrition().get("calories").asInt());
+		assertNull(response.getWorkoutStats());
+		assertNull(response.getRecentSessions());
+		assertEquals(Map.of("workoutStats", "unavailable", "recentSessions", "timeout"), response.getErrors());
+	}
+}
@@ -0,0 +1,61 @@
+package com.hediske.api_gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class HedgingPolicyTests {
+
+	@Test
+	void keepsHedgesWithinTheBudget() {
+		HedgingPolicy policy = new HedgingPolicy(0.95, Duration.ofMillis(100), Duration.ofMillis(10),
+				Duration.ofSeconds(1), 100, 10, 0.05, 10);
+
+		int hedges = 0;
+		for (int i = 0; i < 10_000; i++) {
+			policy.onRequest();
+			if (policy.tryAcquireHedge()) {
+				hedges++;
+			}
+		}
+
+		assertEquals(500, hedges);
+	}
+
+	@Test
+	void capsSavedUpBudgetAtMaxBurst() {
+		HedgingPolicy policy = new HedgingPolicy(0.95, Duration.ofMillis(100), Duration.ofMillis(10),
+				Duration.ofSeconds(1), 100, 10, 0.05, 3);
+
+		for (int i = 0; i < 10_000; i++) {
+			policy.onRequest();
+		}
+
+		assertTrue(policy.tryAcquireHedge());
+		assertTrue(policy.tryAcquireHedge());
+		assertTrue(policy.tryAcquireHedge());
+		assertFalse(policy.tryAcquireHedge());
+	}
+
+	@Test
+	void delayTracksConfiguredPercentileOnceWarmedUp() {
+		AtomicLong clock = new AtomicLong();
+		HedgingPolicy policy = new HedgingPolicy(0.95, Duration.ofMillis(100), Duration.ofMillis(10),
+				Duration.ofSeconds(1), 100, 10, 0.05, 10, clock::get);
+
+		assertEquals(Duration.ofMillis(100), policy.hedgeDelay());
+
+		for (int i = 1; i <= 100; i++) {
+			policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(i));
+		}
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+		assertEquals(Duration.ofMillis(95), policy.hedgeDelay());
+	}
+}
@@ -0,0 +1,129 @@
+package com.hediske.api_gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Discrete-event simulation of three stub workout-service instances of different speeds receiving a
+ * steady request stream through {@link LatencyAwareLoadBalancer}. Each instance serves requests in
+ * parallel, so its latency only depends on its own speed.
+ */
+class LatencyAwareLoadBalancerSimulationTests {
+
+	private static final int REQUESTS = 20_000;
+	private static final long ARRIVAL_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+	private static final List<ServiceInstance> INSTANCES = List.of(
+			instance("fast", 8081), instance("medium", 8082), instance("slow", 8083));
+	private static final Map<String, Long> LATENCY_NANOS = Map.of(
+			"fast", TimeUnit.MILLISECONDS.toNanos(5),
+			"medium", TimeUnit.MILLISECONDS.toNanos(15),
+			"slow", TimeUnit.MILLISECONDS.toNanos(200));
+
+	private long now = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void shiftsTrafficAwayFromSlowInstances() {
+		LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(supplierProvider(), "workout-service",
+				Duration.ofSeconds(1), Duration.ofSeconds(1), () -> now);
+
+		Map<String, Integer> served = new HashMap<>();
+		long totalLatency = 0;
+		PriorityQueue<Completion> pending = new PriorityQueue<>();
+
+		for (int i = 0; i < REQUESTS; i++) {
+			now += ARRIVAL_INTERVAL_NANOS;
+			while (!pending.isEmpty() && pending.peek().at <= now) {
+				Completion completion = pending.poll();
+				long arrival = now;
+				now = completion.at;
+				loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS,
+						completion.request, completion.response));
+				now = arrival;
+			}
+
+			DefaultRequest<Object> request = new DefaultRequest<>(new RequestDataContext(
+					new RequestData(HttpMethod.GET, URI.create("http://workout-service/api/exercise"),
+							new HttpHeaders(), new HttpHeaders(), Map.of())));
+			Response<ServiceInstance> response = loadBalancer.choose(request).block();
+			loadBalancer.onStartRequest(request, response);
+
+			String id = response.getServer().getInstanceId();
+			long latency = LATENCY_NANOS.get(id);
+			served.merge(id, 1, Integer::sum);
+			totalLatency += latency;
+			pending.add(new Completion(now + latency, request, response));
+		}
+
+		double slowShare = served.getOrDefault("slow", 0) / (double) REQUESTS;
+		double fastShare = served.getOrDefault("fast", 0) / (double) REQUESTS;
+		double meanLatencyMillis = totalLatency / (double) REQUESTS / 1_000_000;
+		double roundRobinMeanMillis = LATENCY_NANOS.values().stream().mapToLong(Long::longValue).average().orElse(0) / 1_000_000;
+
+		assertTrue(slowShare < 0.05, "slow instance share " + slowShare + " served " + served);
+		assertTrue(fastShare > 0.5, "fast instance share " + fastShare + " served " + served);
+		assertTrue(meanLatencyMillis < roundRobinMeanMillis / 3,
+				"mean latency " + meanLatencyMillis + "ms vs round-robin " + roundRobinMeanMillis + "ms");
+	}
+
+	private static ServiceInstance instance(String id, int port) {
+		return new DefaultServiceInstance(id, "workout-service", "localhost", port, false);
+	}
+
+	private static ObjectProvider<ServiceInstanceListSupplier> supplierProvider() {
+		ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+			@Override
+			public String getServiceId() {
+				return "workout-service";
+			}
+
+			@Override
+			public Flux<List<ServiceInstance>> get() {
+				return Flux.just(INSTANCES);
+			}
+		};
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("supplier", supplier);
+		return beanFactory.getBeanProvider(ServiceInstanceListSupplier.class);
+	}
+
+	private static final class Completion implements Comparable<Completion> {
+		private final long at;
+		private final DefaultRequest<Object> request;
+		private final Response<ServiceInstance> response;
+
+		private Completion(long at, DefaultRequest<Object> request, Response<ServiceInstance> response) {
+			this.at = at;
+			this.request = request;
+			this.response = response;
+		}
+
+		@Override
+		public int compareTo(Completion other) {
+			return Long.compare(at, other.at);
+		}
+	}
+}
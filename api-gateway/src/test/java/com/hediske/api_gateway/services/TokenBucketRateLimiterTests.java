@@ -0,0 +1,33 @@
+package com.hediske.api_gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTests {
+
+	@Test
+	void allowsBurstUpToCapacityThenAsksToWait() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1, Duration.ofMinutes(1), 100);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, limiter.tryAcquire("jane@example.com"));
+		}
+		long wait = limiter.tryAcquire("jane@example.com");
+
+		assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), "wait was " + wait);
+	}
+
+	@Test
+	void keepsSeparateBucketsPerUser() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, Duration.ofMinutes(1), 100);
+
+		assertEquals(0, limiter.tryAcquire("jane@example.com"));
+		assertTrue(limiter.tryAcquire("jane@example.com") > 0);
+		assertEquals(0, limiter.tryAcquire("john@example.com"));
+	}
+}
@@ -0,0 +1,62 @@
+package com.fitness.hediske.config;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the client address used for per-IP login throttling.
+ *
+ * {@code X-Forwarded-For} is only honoured when the request comes from one of
+ * {@code application.security.trusted-proxies} (addresses or CIDR ranges, e.g. the gateway). The
+ * list is then read right to left, skipping further trusted proxies, and the first other hop is
+ * the client; everything left of it could have been sent by the client itself.
+ */
+@Component
+public class ClientIpResolver {
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientIpResolver(@Value("${application.security.trusted-proxies:}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isBlank() || !isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && (i == 0 || !isTrusted(hop))) {
+                return hop;
+            }
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrusted(String address) {
+        // anything else would make the matcher resolve it as a host name
+        if (!address.contains(":") && !IPV4.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.fitness.hediske.services.JwtService;
+import com.fitness.hediske.services.TokenRevocationService;
+import com.fitness.hediske.services.TokenValidation;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,6 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -30,7 +33,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwtHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final TokenValidation validation;
 
         if (jwtHeader == null || !jwtHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,12 +42,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = jwtHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        validation = jwtService.validate(jwt);
 
-        if (username != null && request.getUserPrincipal() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
+        if (validation.isValid() && validation.getSubject() != null && request.getUserPrincipal() == null) {
+            var userDetails = userDetailsService.loadUserByUsername(validation.getSubject());
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            // refresh, reset and verification tokens never authenticate a request, nor do revoked ones
+            if (validation.isValidFor(userDetails, JwtService.ACCESS_TOKEN_TYPE)
+                    && !tokenRevocationService.isRevoked(validation)) {
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
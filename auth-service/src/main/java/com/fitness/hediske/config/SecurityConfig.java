@@ -1,5 +1,8 @@
 package com.fitness.hediske.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,13 +13,18 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
+import com.fitness.hediske.services.RehashingBCryptPasswordEncoder;
+import com.fitness.hediske.services.BoundedPasswordEncoder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -37,6 +45,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/api/auth/**",
+                                "/.well-known/jwks.json",
+                                "/actuator/health",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/swagger-resources/**",
@@ -61,17 +71,19 @@ public class SecurityConfig {
                 // invalid\"}");
                 // }))
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+            UserDetailsPasswordService userDetailsPasswordService) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // hashes stored at a lower cost are rewritten after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -80,8 +92,24 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt runs on its own bounded pool (0 threads = one per core) instead of request threads,
+    // at the configured cost; calibration only logs the cost that would fit target-latency here
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+            @Value("${application.security.password-hashing.threads:0}") int threads,
+            @Value("${application.security.password-hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${application.security.password-hashing.retry-after:PT1S}") Duration retryAfter,
+            @Value("${application.security.password-hashing.strength:10}") int strength,
+            @Value("${application.security.password-hashing.calibrate:true}") boolean calibrate,
+            @Value("${application.security.password-hashing.target-latency:PT0.1S}") Duration targetLatency,
+            @Value("${application.security.password-hashing.min-strength:10}") int minStrength,
+            @Value("${application.security.password-hashing.max-strength:14}") int maxStrength) {
+        if (calibrate) {
+            RehashingBCryptPasswordEncoder.calibrate(targetLatency, minStrength, maxStrength);
+        }
+        Gauge.builder("auth.password.bcrypt.cost", () -> strength).register(meterRegistry);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new RehashingBCryptPasswordEncoder(strength), poolSize, queueCapacity,
+                retryAfter, meterRegistry);
     }
 }
\ No newline at end of file
@@ -3,11 +3,15 @@ package com.fitness.hediske.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fitness.hediske.config.ClientIpResolver;
 import com.fitness.hediske.dto.AuthenticationRequest;
 import com.fitness.hediske.dto.AuthenticationResponse;
+import com.fitness.hediske.dto.BatchTokenIntrospectionRequest;
+import com.fitness.hediske.dto.BatchTokenIntrospectionResponse;
 import com.fitness.hediske.dto.RegisterRequest;
 import com.fitness.hediske.dto.RegisterResponse;
 import com.fitness.hediske.dto.TokenIntrospectionRequest;
@@ -15,6 +19,7 @@ import com.fitness.hediske.dto.TokenIntrospectionResponse;
 import com.fitness.hediske.dto.TokenRefreshRequest;
 import com.fitness.hediske.services.AuthenticationService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -24,14 +29,17 @@ public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
 
+    private final ClientIpResolver clientIpResolver;
+
     @PostMapping("/register")
     public ResponseEntity<RegisterResponse> register(@RequestBody RegisterRequest request) {
         return ResponseEntity.ok(authenticationService.register(request));
     }
     
     @PostMapping("/authenticate")
-    public ResponseEntity<AuthenticationResponse> authenticate(@RequestBody AuthenticationRequest request) {
-        return ResponseEntity.ok(authenticationService.authenticate(request));
+    public ResponseEntity<AuthenticationResponse> authenticate(@RequestBody AuthenticationRequest request,
+            HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authenticationService.authenticate(request, clientIpResolver.resolve(httpRequest)));
     }
 
     @PostMapping("/refresh-token")
@@ -44,4 +52,20 @@ public class AuthenticationController {
         return ResponseEntity.ok(authenticationService.introspectToken(request.getToken()));
     }
 
+    // the body is optional; send the refresh token so it is revoked along with the access token
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@RequestHeader("Authorization") String authorization,
+            @RequestBody(required = false) TokenRefreshRequest request) {
+        if (authorization.startsWith("Bearer ")) {
+            authenticationService.logout(authorization.substring(7), request != null ? request.getRefreshToken() : null);
+        }
+        return ResponseEntity.ok("Logged out successfully");
+    }
+
+    @PostMapping("/introspect/batch")
+    public ResponseEntity<BatchTokenIntrospectionResponse> introspectTokens(
+            @RequestBody BatchTokenIntrospectionRequest request) {
+        return ResponseEntity.ok(authenticationService.introspectTokens(request.getTokens()));
+    }
+
 }
\ No newline at end of file
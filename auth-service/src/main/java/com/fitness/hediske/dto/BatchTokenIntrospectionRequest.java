@@ -0,0 +1,18 @@
+package com.fitness.hediske.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenIntrospectionRequest {
+    @NotEmpty(message = "Tokens must not be empty")
+    private List<String> tokens;
+}
@@ -0,0 +1,14 @@
+package com.fitness.hediske.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTokenIntrospectionResponse {
+    // one entry per requested token, in request order
+    private List<TokenIntrospectionResponse> results;
+}
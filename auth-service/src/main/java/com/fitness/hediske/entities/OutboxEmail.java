@@ -0,0 +1,70 @@
+package com.fitness.hediske.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An email waiting to be delivered, written in the same transaction as the change that caused it.
+ * Delivered rows are deleted; rows that exhaust their attempts stay behind as {@link Status#FAILED}
+ * until they are purged after {@code failed-retention}.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "idx_email_outbox_due", columnList = "status, nextAttemptAt"))
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class OutboxEmail {
+
+    public enum Type {
+        VERIFICATION, PASSWORD_RESET
+    }
+
+    public enum Status {
+        PENDING, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 2048)
+    private String token;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(length = 512)
+    private String lastError;
+}
@@ -0,0 +1,34 @@
+package com.fitness.hediske.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single token revoked before its expiry (e.g. on logout), keyed by its {@code jti}.
+ * Rows past {@link #expiresAt} no longer matter and are purged.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String tokenId;
+
+    private String email;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,49 @@
+package com.fitness.hediske.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An RSA key pair used to sign tokens, shared by all auth-service instances. Keys are encoded as
+ * base64 X.509 (public) and PKCS#8 (private); the private key is stored encrypted, see
+ * {@link com.fitness.hediske.services.SigningKeyService}.
+ */
+@Entity
+@Table(name = "signing_keys")
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class SigningKey {
+
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    /** Unique, so concurrent rotations insert one key. */
+    @Column(nullable = false, unique = true)
+    private long generation;
+
+    @Column(nullable = false, length = 16)
+    private String algorithm;
+
+    @Lob
+    @Column(nullable = false)
+    private String publicKey;
+
+    @Lob
+    @Column(nullable = false)
+    private String privateKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -68,6 +68,10 @@ public class User implements UserDetails {
     @ElementCollection(fetch = FetchType.EAGER)
     private Set<String> roles;
 
+    // carried as the "ver" claim; bumping it revokes every token issued before
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @CreatedDate
     private LocalDateTime createdAt;
     @LastModifiedDate
@@ -105,6 +109,10 @@ public class User implements UserDetails {
         return enabled;
     }
 
+    public int getCurrentTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+
     @Override
     public String getUsername(){
         return email;
@@ -0,0 +1,7 @@
+package com.fitness.hediske.exceptions;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.fitness.hediske.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource is saturated; answered with 503 and {@code Retry-After}.
+ */
+@Getter
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
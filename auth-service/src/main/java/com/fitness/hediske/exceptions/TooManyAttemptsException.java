@@ -0,0 +1,17 @@
+package com.fitness.hediske.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown while a caller is locked out after repeated failures; answered with 429 and {@code Retry-After}.
+ */
+@Getter
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
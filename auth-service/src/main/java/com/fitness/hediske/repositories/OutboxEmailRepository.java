@@ -0,0 +1,29 @@
+package com.fitness.hediske.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fitness.hediske.entities.OutboxEmail;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    // SKIP LOCKED (-2): concurrent dispatchers on other instances claim disjoint rows instead of waiting
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEmail> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(OutboxEmail.Status status, Instant now,
+            Pageable pageable);
+
+    @Modifying
+    @Transactional
+    void deleteByStatusAndCreatedAtBefore(OutboxEmail.Status status, Instant cutoff);
+}
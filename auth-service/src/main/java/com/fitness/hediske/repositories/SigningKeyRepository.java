@@ -0,0 +1,12 @@
+package com.fitness.hediske.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.fitness.hediske.entities.SigningKey;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findAllByOrderByCreatedAtDesc();
+}
@@ -1,7 +1,10 @@
 package com.fitness.hediske.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.fitness.hediske.entities.User;
@@ -14,5 +17,25 @@ public interface  UserRepository extends JpaRepository<User, Long> {
     boolean existsByUserid(String username);
     boolean existsByEmail(String email);
 
+    // roles are fetched in the same query instead of one select per user
+    @EntityGraph(attributePaths = "roles")
+    List<User> findByEmailIn(Collection<String> emails);
+
+    // users whose earlier tokens were revoked by bumping their token version
+    List<UserTokenVersion> findByTokenVersionGreaterThan(int tokenVersion);
+
+    interface UserTokenVersion {
+        String getEmail();
+        Integer getTokenVersion();
+    }
+
+    // every registered userid and email, to seed the registration pre-check filter
+    List<UserIdentity> findAllProjectedBy();
+
+    interface UserIdentity {
+        String getUserid();
+        String getEmail();
+    }
+
     
 }
@@ -1,13 +1,20 @@
 package com.fitness.hediske.services;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fitness.hediske.dto.*;
 import com.fitness.hediske.entities.User;
@@ -28,16 +35,95 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authManager;
     private final EmailService emailService;
-
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCache userCache;
+    private final UserIdentityFilter userIdentityFilter;
+    private final LoginThrottle loginThrottle;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.security.introspection.max-batch-size:100}")
+    private int maxBatchSize;
+
+    /**
+     * Access tokens that carry role and version claims are answered from the token and the
+     * in-memory revocation filter; only older tokens without those claims load the user.
+     */
     public TokenIntrospectionResponse introspectToken(String token) {
 
-        String email = jwtService.extractUsername(token);
-        User user = userRepository.findByEmail(
-                email)
+        TokenValidation validation = jwtService.validate(token);
+        if (!isIntrospectable(validation)) {
+            return TokenIntrospectionResponse.builder().active(false).build();
+        }
+        if (validation.isSelfContained()) {
+            return selfContainedIntrospection(validation);
+        }
+        User user = userCache.findByEmail(
+                validation.getSubject())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
+        return buildIntrospection(validation, user);
+    }
+
+    /**
+     * Introspects several tokens with a single user lookup. Tokens that cannot be parsed or whose
+     * user no longer exists are reported inactive instead of failing the whole batch.
+     */
+    public BatchTokenIntrospectionResponse introspectTokens(List<String> tokens) {
+        if (tokens == null || tokens.size() > maxBatchSize) {
+            throw new BatchTooLargeException("A batch holds at most " + maxBatchSize + " tokens");
+        }
+        List<TokenValidation> validations = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            validations.add(jwtService.validate(token));
+        }
+
+        Map<String, User> usersByEmail = userCache.findByEmailIn(validations.stream()
+                .filter(validation -> isIntrospectable(validation) && !validation.isSelfContained())
+                .map(TokenValidation::getSubject)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<TokenIntrospectionResponse> results = new ArrayList<>(tokens.size());
+        for (TokenValidation validation : validations) {
+            if (!isIntrospectable(validation)) {
+                results.add(TokenIntrospectionResponse.builder().active(false).build());
+                continue;
+            }
+            if (validation.isSelfContained()) {
+                results.add(selfContainedIntrospection(validation));
+                continue;
+            }
+            User user = validation.getSubject() != null ? usersByEmail.get(validation.getSubject()) : null;
+            results.add(user != null
+                    ? buildIntrospection(validation, user)
+                    : TokenIntrospectionResponse.builder().active(false).build());
+        }
+
+        return BatchTokenIntrospectionResponse.builder()
+                .results(results)
+                .build();
+    }
+
+    // refresh, password reset and verification tokens never authorize API calls
+    private static boolean isIntrospectable(TokenValidation validation) {
+        return validation.isValid()
+                && (validation.getType() == null || JwtService.ACCESS_TOKEN_TYPE.equals(validation.getType()));
+    }
+
+    private TokenIntrospectionResponse selfContainedIntrospection(TokenValidation validation) {
+        if (tokenRevocationService.isRevoked(validation)) {
+            return TokenIntrospectionResponse.builder().active(false).build();
+        }
+        return TokenIntrospectionResponse.builder()
+                .active(true)
+                .email(validation.getSubject())
+                .role(validation.getRole())
+                .build();
+    }
+
+    private TokenIntrospectionResponse buildIntrospection(TokenValidation validation, User user) {
         try {
-            if (!jwtService.isTokenValid(token, user)) {
+            if (!validation.isValidFor(user) || tokenRevocationService.isRevoked(validation)) {
                 return TokenIntrospectionResponse.builder()
                         .active(false)
                         .build();
@@ -50,7 +136,7 @@ public class AuthenticationService {
 
             return TokenIntrospectionResponse.builder()
                     .active(true)
-                    .email(email)
+                    .email(user.getEmail())
                     .role(role)
                     .build();
 
@@ -61,20 +147,29 @@ public class AuthenticationService {
         }
     }
 
-    @Transactional
+    /**
+     * The exists queries only run when the identity filter says the userid or email might be taken;
+     * the unique constraints on {@code users} catch anything the filter has not seen yet. The
+     * password is hashed before the transaction opens, so no pooled connection is held while the
+     * request waits for and runs BCrypt.
+     */
     public RegisterResponse register(RegisterRequest request) {
-        if (userRepository.existsByUserid(request.getUsername())) {
+        if (userIdentityFilter.mightContainUserid(request.getUsername())
+                && userRepository.existsByUserid(request.getUsername())) {
             throw new UsernameAlreadyExistsException("Username already exists");
         }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userIdentityFilter.mightContainEmail(request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
             throw new EmailAlreadyExistsException("Email already exists");
         }
 
+        String password = passwordEncoder.encode(request.getPassword());
+
         User user = User.builder()
                 .userid(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(password)
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .gender(request.getGender())
@@ -90,24 +185,49 @@ public class AuthenticationService {
                 .emailVerified(false)
                 .build();
 
-        user = userRepository.save(user);
-
+        // the token only needs the email, so the user is inserted once with it
         String verificationToken = jwtService.generateEmailVerificationToken(user);
         user.setEmailVerificationToken(verificationToken);
-        userRepository.save(user);
-
-        emailService.sendVerificationEmail(user.getEmail(), verificationToken);
+        // the verification email is queued in the outbox, so it commits with the user
+        User saved = transactionTemplate.execute(status -> {
+            User inserted;
+            try {
+                inserted = userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                throw duplicateRegistration(request, e);
+            }
+            emailService.sendVerificationEmail(inserted.getEmail(), verificationToken);
+            return inserted;
+        });
+        userIdentityFilter.add(saved.getUserid(), saved.getEmail());
+        userCache.invalidate(saved.getEmail());
 
         return RegisterResponse.builder()
                 .message("User registered successfully. Please check your email for verification.")
-                .userId(user.getId())
-                .email(user.getEmail())
-                .username(user.getUsername())
+                .userId(saved.getId())
+                .email(saved.getEmail())
+                .username(saved.getUsername())
                 .build();
     }
 
-    @Transactional
-    public AuthenticationResponse authenticate(AuthenticationRequest request) {
+    // MySQL reports the duplicate value ("Duplicate entry '<value>' for key ..."), which tells the two apart
+    private static RuntimeException duplicateRegistration(RegisterRequest request, DataIntegrityViolationException e) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (detail.contains("'" + request.getEmail() + "'")) {
+            return new EmailAlreadyExistsException("Email already exists");
+        }
+        if (detail.contains("'" + request.getUsername() + "'")) {
+            return new UsernameAlreadyExistsException("Username already exists");
+        }
+        return e;
+    }
+
+    /**
+     * Throttled attempts are rejected before any user lookup or password hash. Not transactional,
+     * so a login does not hold a pooled connection while BCrypt runs.
+     */
+    public AuthenticationResponse authenticate(AuthenticationRequest request, String clientIp) {
+        loginThrottle.check(request.getEmail(), clientIp);
         try {
             authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -118,10 +238,12 @@ public class AuthenticationService {
         } catch (LockedException e) {
             throw new AccountLockedException("Account is locked");
         } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(request.getEmail(), clientIp);
             throw new InvalidCredentialsException("Invalid email or password");
         }
+        loginThrottle.recordSuccess(request.getEmail());
 
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userCache.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         if (!user.isEnabled()) {
@@ -135,11 +257,14 @@ public class AuthenticationService {
     }
 
     public AuthenticationResponse refreshToken(String refreshToken) {
-        String email = jwtService.extractUsername(refreshToken);
-        User user = userRepository.findByEmail(email)
+        TokenValidation validation = jwtService.validate(refreshToken);
+        if (!validation.isValid()) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        User user = userCache.findByEmail(validation.getSubject())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        if (!jwtService.isTokenValid(refreshToken, user)) {
+        if (!validation.isValidFor(user, JwtService.REFRESH_TOKEN_TYPE) || tokenRevocationService.isRevoked(validation)) {
             throw new InvalidTokenException("Invalid refresh token");
         }
 
@@ -151,15 +276,18 @@ public class AuthenticationService {
 
     @Transactional
     public void verifyEmail(String token) {
-        String email = jwtService.extractUsername(token);
-        User user = userRepository.findByEmail(email)
+        TokenValidation validation = jwtService.validate(token);
+        if (!validation.isValid()) {
+            throw new InvalidTokenException("Invalid or expired verification token");
+        }
+        User user = userRepository.findByEmail(validation.getSubject())
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         if (!token.equals(user.getEmailVerificationToken())) {
             throw new InvalidTokenException("Token mismatch");
         }
 
-        if (!jwtService.isEmailVerificationTokenValid(token, user)) {
+        if (!validation.isValidFor(user, JwtService.EMAIL_VERIFICATION_TOKEN_TYPE)) {
             throw new InvalidTokenException("Invalid or expired verification token");
         }
 
@@ -167,6 +295,7 @@ public class AuthenticationService {
         user.setEmailVerified(true);
         user.setEmailVerificationToken(null);
         userRepository.save(user);
+        userCache.invalidate(user.getEmail());
     }
 
     @Transactional
@@ -181,6 +310,7 @@ public class AuthenticationService {
         String newToken = jwtService.generateEmailVerificationToken(user);
         user.setEmailVerificationToken(newToken);
         userRepository.save(user);
+        userCache.invalidate(email);
 
         emailService.sendVerificationEmail(email, newToken);
     }
@@ -192,22 +322,70 @@ public class AuthenticationService {
         String token = jwtService.generatePasswordResetToken(user);
         user.setPasswordResetToken(token);
         userRepository.save(user);
+        userCache.invalidate(email);
 
         emailService.sendPasswordResetEmail(email, token);
         return token;
     }
 
+    /**
+     * Only a signed reset token gets as far as the hash, which runs before the transaction that
+     * loads and updates the user, as in {@link #register(RegisterRequest)}.
+     */
     public void resetPassword(String token, String newPassword) {
-        String email = jwtService.extractUsername(token);
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        if (!jwtService.isPasswordResetTokenValid(token, user)) {
+        TokenValidation validation = jwtService.validate(token);
+        if (!validation.isValid() || !JwtService.PASSWORD_RESET_TOKEN_TYPE.equals(validation.getType())) {
             throw new InvalidTokenException("Invalid or expired token");
         }
+        String password = passwordEncoder.encode(newPassword);
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordResetToken(null);
-        userRepository.save(user);
+        User user = transactionTemplate.execute(status -> {
+            User found = userRepository.findByEmail(validation.getSubject())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+            if (!validation.isValidFor(found, JwtService.PASSWORD_RESET_TOKEN_TYPE)) {
+                throw new InvalidTokenException("Invalid or expired token");
+            }
+
+            found.setPassword(password);
+            found.setPasswordResetToken(null);
+            // signs the user out everywhere; saves the user along with the new password
+            tokenRevocationService.revokeAllTokens(found);
+            return found;
+        });
+        userCache.invalidate(user.getEmail());
+    }
+
+    /**
+     * Revokes the access token and, when given, the caller's refresh token until they expire, so
+     * the session can no longer be refreshed. Unknown or already invalid tokens are ignored; a
+     * refresh token without a {@code jti} can only be revoked by revoking all of the user's tokens.
+     *
+     * The gateway's default {@code local} verification mode never consults revocation, so there a
+     * revoked access token is still accepted until it expires; only {@code remote} mode rejects it.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        TokenValidation access = jwtService.validate(accessToken);
+        if (!access.isValid()) {
+            return;
+        }
+        tokenRevocationService.revokeToken(access);
+
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        TokenValidation refresh = jwtService.validate(refreshToken);
+        if (!refresh.isValid() || !JwtService.REFRESH_TOKEN_TYPE.equals(refresh.getType())
+                || !access.getSubject().equals(refresh.getSubject())) {
+            return;
+        }
+        if (refresh.getTokenId() != null) {
+            tokenRevocationService.revokeToken(refresh);
+        } else {
+            userRepository.findByEmail(refresh.getSubject()).ifPresent(user -> {
+                tokenRevocationService.revokeAllTokens(user);
+                userCache.invalidate(user.getEmail());
+            });
+        }
     }
 }
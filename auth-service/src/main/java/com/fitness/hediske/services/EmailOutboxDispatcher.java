@@ -0,0 +1,224 @@
+package com.fitness.hediske.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fitness.hediske.entities.OutboxEmail;
+import com.fitness.hediske.repositories.OutboxEmailRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the email outbox in the background.
+ *
+ * Each batch is claimed in a short transaction (rows locked with SKIP LOCKED and leased for
+ * {@code claim-timeout} so no other poll or instance picks them up), sent outside any transaction
+ * over one SMTP connection, and then recorded: delivered rows are deleted, failed ones are retried
+ * with exponential backoff until {@code max-attempts}, after which they are kept as FAILED.
+ * A row whose dispatcher dies mid-send becomes due again when its lease runs out. FAILED rows still
+ * hold their token, so they are deleted once {@code failed-retention} after they were queued.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final String FROM_ADDRESS = "noreply@fitnessapp.com";
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String baseUrl;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Duration failedRetention;
+    private final Clock clock;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public EmailOutboxDispatcher(OutboxEmailRepository outboxEmailRepository, JavaMailSender mailSender,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${application.base-url:http://localhost:8080}") String baseUrl,
+            @Value("${application.email.outbox.batch-size:50}") int batchSize,
+            @Value("${application.email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${application.email.outbox.initial-backoff:PT10S}") Duration initialBackoff,
+            @Value("${application.email.outbox.max-backoff:PT30M}") Duration maxBackoff,
+            @Value("${application.email.outbox.claim-timeout:PT2M}") Duration claimTimeout,
+            @Value("${application.email.outbox.failed-retention:P1D}") Duration failedRetention) {
+        this(outboxEmailRepository, mailSender, transactionTemplate, meterRegistry, baseUrl, batchSize, maxAttempts,
+                initialBackoff, maxBackoff, claimTimeout, failedRetention, Clock.systemUTC());
+    }
+
+    EmailOutboxDispatcher(OutboxEmailRepository outboxEmailRepository, JavaMailSender mailSender,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, String baseUrl, int batchSize,
+            int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration claimTimeout,
+            Duration failedRetention, Clock clock) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.baseUrl = baseUrl;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.failedRetention = failedRetention;
+        this.clock = clock;
+        this.sentCounter = meterRegistry.counter("auth.email.outbox", "result", "sent");
+        this.retriedCounter = meterRegistry.counter("auth.email.outbox", "result", "retried");
+        this.failedCounter = meterRegistry.counter("auth.email.outbox", "result", "failed");
+    }
+
+    /** Drains every due row, a batch at a time. */
+    @Scheduled(fixedDelayString = "${application.email.outbox.poll-interval:1000}")
+    public void dispatch() {
+        try {
+            while (dispatchBatch() == batchSize) {
+                // keep going while batches come back full
+            }
+        } catch (RuntimeException e) {
+            log.warn("Email outbox dispatch failed, retrying on the next poll", e);
+        }
+    }
+
+    /** Deletes FAILED rows queued more than {@code failed-retention} ago. */
+    @Scheduled(fixedDelayString = "${application.email.outbox.purge-interval:PT1H}")
+    public void purgeFailed() {
+        outboxEmailRepository.deleteByStatusAndCreatedAtBefore(OutboxEmail.Status.FAILED,
+                clock.instant().minus(failedRetention));
+    }
+
+    /**
+     * Claims, sends and records one batch.
+     *
+     * @return the number of rows claimed
+     */
+    public int dispatchBatch() {
+        List<OutboxEmail> batch = transactionTemplate.execute(status -> claim(clock.instant()));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<SimpleMailMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        for (OutboxEmail email : batch) {
+            messages.put(compose(email), email);
+        }
+        Map<Object, Exception> failures = send(messages.keySet());
+
+        transactionTemplate.executeWithoutResult(status -> record(messages, failures, clock.instant()));
+        return batch.size();
+    }
+
+    private List<OutboxEmail> claim(Instant now) {
+        List<OutboxEmail> due = outboxEmailRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                OutboxEmail.Status.PENDING, now, PageRequest.of(0, batchSize));
+        Instant leaseEnd = now.plus(claimTimeout);
+        due.forEach(email -> email.setNextAttemptAt(leaseEnd));
+        return due;
+    }
+
+    // JavaMailSender sends an array over a single connection and reports failures per message
+    private Map<Object, Exception> send(Iterable<SimpleMailMessage> messages) {
+        List<SimpleMailMessage> batch = new ArrayList<>();
+        messages.forEach(batch::add);
+        try {
+            mailSender.send(batch.toArray(new SimpleMailMessage[0]));
+            return Map.of();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return failAll(batch, e);
+        } catch (MailException e) {
+            return failAll(batch, e);
+        }
+    }
+
+    private void record(Map<SimpleMailMessage, OutboxEmail> messages, Map<Object, Exception> failures, Instant now) {
+        List<Long> delivered = new ArrayList<>();
+        List<OutboxEmail> retried = new ArrayList<>();
+        messages.forEach((message, email) -> {
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                delivered.add(email.getId());
+                return;
+            }
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(truncate(String.valueOf(failure.getMessage())));
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboxEmail.Status.FAILED);
+                failedCounter.increment();
+                log.warn("Giving up on {} email {} to {} after {} attempts: {}", email.getType(), email.getId(),
+                        email.getRecipient(), email.getAttempts(), email.getLastError());
+            } else {
+                email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+                retriedCounter.increment();
+                log.debug("Email {} failed (attempt {}), retrying at {}", email.getId(), email.getAttempts(),
+                        email.getNextAttemptAt());
+            }
+            retried.add(email);
+        });
+
+        if (!delivered.isEmpty()) {
+            outboxEmailRepository.deleteAllByIdInBatch(delivered);
+            sentCounter.increment(delivered.size());
+        }
+        outboxEmailRepository.saveAll(retried);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private SimpleMailMessage compose(OutboxEmail email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(FROM_ADDRESS);
+        message.setTo(email.getRecipient());
+        switch (email.getType()) {
+            case VERIFICATION -> {
+                String verificationUrl = baseUrl + "/api/auth/verify-email?token=" + email.getToken();
+                message.setSubject("Verify your email address");
+                message.setText("Please click the following link to verify your email address:\n" + verificationUrl);
+            }
+            case PASSWORD_RESET -> {
+                message.setSubject("Reset your password");
+                message.setText("Use the following token to reset your password. It expires shortly:\n"
+                        + email.getToken());
+            }
+        }
+        return message;
+    }
+
+    private static Map<Object, Exception> failAll(List<SimpleMailMessage> batch, Exception e) {
+        Map<Object, Exception> failures = new LinkedHashMap<>();
+        batch.forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 512 ? message : message.substring(0, 512);
+    }
+}
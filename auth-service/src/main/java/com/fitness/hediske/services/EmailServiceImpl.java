@@ -1,42 +1,43 @@
 package com.fitness.hediske.services;
 
-import org.springframework.core.env.Environment;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import java.time.Instant;
+
 import org.springframework.stereotype.Service;
 
-import com.fitness.hediske.exceptions.EmailSendingException;
+import com.fitness.hediske.entities.OutboxEmail;
 import com.fitness.hediske.interfaces.EmailService;
+import com.fitness.hediske.repositories.OutboxEmailRepository;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Queues emails in the outbox instead of talking to SMTP. Called inside a transaction the row
+ * commits or rolls back with it; {@link EmailOutboxDispatcher} delivers it afterwards.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
-    private final Environment env;
+    private final OutboxEmailRepository outboxEmailRepository;
 
     @Override
     public void sendVerificationEmail(String toEmail, String verificationToken) {
-        try {
-            String appUrl = env.getProperty("application.base-url", "http://localhost:8080");
-            String verificationUrl = appUrl + "/api/auth/verify-email?token=" + verificationToken;
-
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("noreply@fitnessapp.com");
-            message.setTo(toEmail);
-            message.setSubject("Verify your email address");
-            message.setText("Please click the following link to verify your email address:\n" + verificationUrl);
-
-            mailSender.send(message);
-        } catch (Exception e) {
-            throw new EmailSendingException("Failed to send verification email", e);
-        }
+        enqueue(OutboxEmail.Type.VERIFICATION, toEmail, verificationToken);
     }
 
     @Override
     public void sendPasswordResetEmail(String toEmail, String resetToken) {
-        // Similar implementation for password reset emails
+        enqueue(OutboxEmail.Type.PASSWORD_RESET, toEmail, resetToken);
+    }
+
+    private void enqueue(OutboxEmail.Type type, String toEmail, String token) {
+        Instant now = Instant.now();
+        outboxEmailRepository.save(OutboxEmail.builder()
+                .type(type)
+                .recipient(toEmail)
+                .token(token)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
     }
-}
\ No newline at end of file
+}
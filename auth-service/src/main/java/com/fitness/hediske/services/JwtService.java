@@ -2,46 +2,112 @@ package com.fitness.hediske.services;
 
 import com.fitness.hediske.entities.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
+@Slf4j
 @Service
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
-
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration;
-
-    @Value("${application.security.jwt.refresh-token.expiration}")
-    private long refreshExpiration;
-
-    @Value("${application.security.jwt.password-reset.expiration}")
-    private long passwordResetExpiration;
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public static final String TYPE_CLAIM = "type";
+    public static final String ROLE_CLAIM = "role";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String VERSION_CLAIM = "ver";
+    public static final String ACCESS_TOKEN_TYPE = "access";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+    public static final String PASSWORD_RESET_TOKEN_TYPE = "password_reset";
+    public static final String EMAIL_VERIFICATION_TOKEN_TYPE = "email_verification";
+
+    private final SigningKeyService signingKeyService;
+    private final SignatureAlgorithm signingAlgorithm;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final long passwordResetExpiration;
+
+    // built once; both are immutable and thread-safe
+    private final Key hmacKey;
+    private final JwtParser parser;
+
+    /**
+     * Signs with RS256 and a {@code kid} header from {@link SigningKeyService} unless
+     * {@code application.security.jwt.algorithm} is {@code HS256}. HS256 tokens signed with the
+     * shared secret keep verifying either way, so tokens issued before the switch stay valid until
+     * they expire.
+     */
+    public JwtService(SigningKeyService signingKeyService,
+            @Value("${application.security.jwt.algorithm:RS256}") SignatureAlgorithm signingAlgorithm,
+            @Value("${application.security.jwt.secret-key}") String secretKey,
+            @Value("${application.security.jwt.expiration}") long jwtExpiration,
+            @Value("${application.security.jwt.refresh-token.expiration}") long refreshExpiration,
+            @Value("${application.security.jwt.password-reset.expiration}") long passwordResetExpiration) {
+        if (signingAlgorithm != SignatureAlgorithm.RS256 && signingAlgorithm != SignatureAlgorithm.HS256) {
+            throw new IllegalArgumentException("Unsupported signing algorithm: " + signingAlgorithm);
+        }
+        this.signingKeyService = signingKeyService;
+        this.signingAlgorithm = signingAlgorithm;
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.passwordResetExpiration = passwordResetExpiration;
+        this.hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return verificationKey(header);
+            }
+        }).build();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Parses and verifies {@code token} once. Expiry is checked by the parser, so callers only
+     * need to compare the subject and type of the result.
+     */
+    public TokenValidation validate(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return TokenValidation.valid(claims.getSubject(), claims.get(TYPE_CLAIM, String.class),
+                    toInstant(claims.getExpiration()), claims.getId(), claims.get(ROLE_CLAIM, String.class),
+                    claims.get(VERSION_CLAIM, Integer.class));
+        } catch (ExpiredJwtException e) {
+            Claims claims = e.getClaims();
+            return TokenValidation.expired(claims.getSubject(), claims.get(TYPE_CLAIM, String.class),
+                    toInstant(claims.getExpiration()));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token validation failed: {}", e.getMessage());
+            return TokenValidation.invalid();
+        }
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        // type, roles and version let the gateway and /introspect authorize without loading the user
+        List<String> roles = extractRoles(userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TYPE_CLAIM, ACCESS_TOKEN_TYPE);
+        claims.put(ROLE_CLAIM, roles.isEmpty() ? "USER" : roles.get(0));
+        claims.put(ROLES_CLAIM, roles);
+        claims.put(VERSION_CLAIM, tokenVersion(userDetails));
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -49,77 +115,73 @@ public class JwtService {
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TYPE_CLAIM, REFRESH_TOKEN_TYPE);
+        claims.put(VERSION_CLAIM, tokenVersion(userDetails));
+        return buildToken(claims, userDetails, refreshExpiration);
     }
 
     public String generatePasswordResetToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "password_reset");
+        claims.put(TYPE_CLAIM, PASSWORD_RESET_TOKEN_TYPE);
         return buildToken(claims, user, passwordResetExpiration);
     }
 
+    public String generateEmailVerificationToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TYPE_CLAIM, EMAIL_VERIFICATION_TOKEN_TYPE);
+        return buildToken(claims, user, jwtExpiration);
+    }
+
     private String buildToken(
             Map<String, Object> extraClaims,
             UserDetails userDetails,
             long expiration
     ) {
-        System.out.println(userDetails.getUsername());
-        return Jwts
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration));
+        if (signingAlgorithm == SignatureAlgorithm.HS256) {
+            return builder.signWith(hmacKey, SignatureAlgorithm.HS256).compact();
+        }
+        SigningKeyService.LoadedKey key = signingKeyService.signingKey();
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, key.getKid())
+                .signWith(key.getPrivateKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    // the key is chosen by the header's alg, so an RS256 public key can never verify an HS256 token
+    private Key verificationKey(JwsHeader<?> header) {
+        if (SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+            return hmacKey;
+        }
+        if (SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm()) && header.getKeyId() != null) {
+            Key key = signingKeyService.publicKey(header.getKeyId());
+            if (key != null) {
+                return key;
+            }
+        }
+        throw new UnsupportedJwtException("Unknown signing key " + header.getKeyId() + " for " + header.getAlgorithm());
     }
 
-    public boolean isPasswordResetTokenValid(String token, User user) {
-        final String username = extractUsername(token);
-        final Claims claims = extractAllClaims(token);
-        return username.equals(user.getUsername()) && 
-               !isTokenExpired(token) && 
-               "password_reset".equals(claims.get("type"));
+    private List<String> extractRoles(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith("ROLE_") ? authority.substring(5) : authority)
+                .toList();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static int tokenVersion(UserDetails userDetails) {
+        return userDetails instanceof User user ? user.getCurrentTokenVersion() : 0;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public String generateEmailVerificationToken(User user) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "email_verification");
-        return buildToken(claims, user, jwtExpiration);
-    }
-    
-    public boolean isEmailVerificationTokenValid(String token, User user) {
-        final String username = extractUsername(token);
-        final Claims claims = extractAllClaims(token);
-        return username.equals(user.getUsername()) && 
-               !isTokenExpired(token) && 
-               "email_verification".equals(claims.get("type"));
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
     }
-}
\ No newline at end of file
+}
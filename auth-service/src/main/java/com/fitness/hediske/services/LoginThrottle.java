@@ -0,0 +1,191 @@
+package com.fitness.hediske.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fitness.hediske.exceptions.TooManyAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Throttles logins per email and per client IP after repeated failures.
+ *
+ * Each key may fail {@code max-failures} times; every further failure locks it for
+ * {@code base-lockout} doubled per extra failure, up to {@code max-lockout}. Counts are forgotten
+ * {@code failure-window} after the last failure or lockout ends, and a successful login clears the
+ * email's count. {@link #check} runs before any user lookup or password hash, so a locked-out
+ * credential-stuffing burst costs a map read per attempt. Unknown emails are counted like real ones.
+ *
+ * State lives in bounded Caffeine maps updated with per-key atomic {@code compute} calls. Metrics:
+ * {@code auth.login.failures} and {@code auth.login.throttled} counters tagged with
+ * {@code scope} ({@code email}/{@code ip}), and cache metrics under {@code auth.login.throttle.<scope>}.
+ */
+@Service
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final Ticker ticker;
+    private final Scope emails;
+    private final Scope ips;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+            @Value("${application.security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${application.security.login-throttle.email-max-failures:5}") int emailMaxFailures,
+            @Value("${application.security.login-throttle.ip-max-failures:50}") int ipMaxFailures,
+            @Value("${application.security.login-throttle.base-lockout:PT1S}") Duration baseLockout,
+            @Value("${application.security.login-throttle.max-lockout:PT15M}") Duration maxLockout,
+            @Value("${application.security.login-throttle.failure-window:PT15M}") Duration failureWindow,
+            @Value("${application.security.login-throttle.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this(meterRegistry, enabled, emailMaxFailures, ipMaxFailures, baseLockout, maxLockout, failureWindow,
+                maxTrackedKeys, Ticker.systemTicker());
+    }
+
+    LoginThrottle(MeterRegistry meterRegistry, boolean enabled, int emailMaxFailures, int ipMaxFailures,
+            Duration baseLockout, Duration maxLockout, Duration failureWindow, long maxTrackedKeys, Ticker ticker) {
+        this.enabled = enabled;
+        this.ticker = ticker;
+        this.emails = new Scope("email", emailMaxFailures, baseLockout, maxLockout, failureWindow, maxTrackedKeys,
+                ticker, meterRegistry);
+        this.ips = new Scope("ip", ipMaxFailures, baseLockout, maxLockout, failureWindow, maxTrackedKeys,
+                ticker, meterRegistry);
+    }
+
+    /** Rejects the attempt if the email or the client IP is currently locked out. */
+    public void check(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = ticker.read();
+        long remaining = Math.max(emails.lockedFor(normalize(email), now), ips.lockedFor(clientIp, now));
+        if (remaining > 0) {
+            throw new TooManyAttemptsException("Too many failed login attempts, please retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + 999_999_999)));
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = ticker.read();
+        emails.recordFailure(normalize(email), now);
+        ips.recordFailure(clientIp, now);
+    }
+
+    public void recordSuccess(String email) {
+        if (enabled) {
+            emails.reset(normalize(email));
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Failures {
+        private final int count;
+        private final long lockedUntil;
+        private final long expiresAt;
+
+        private Failures(int count, long lockedUntil, long expiresAt) {
+            this.count = count;
+            this.lockedUntil = lockedUntil;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Scope {
+        private final int maxFailures;
+        private final long baseLockoutNanos;
+        private final long maxLockoutNanos;
+        private final long failureWindowNanos;
+        private final Cache<String, Failures> cache;
+        private final ConcurrentMap<String, Failures> failures;
+        private final Counter failureCounter;
+        private final Counter throttledCounter;
+
+        private Scope(String name, int maxFailures, Duration baseLockout, Duration maxLockout,
+                Duration failureWindow, long maxTrackedKeys, Ticker ticker, MeterRegistry meterRegistry) {
+            this.maxFailures = maxFailures;
+            this.baseLockoutNanos = baseLockout.toNanos();
+            this.maxLockoutNanos = maxLockout.toNanos();
+            this.failureWindowNanos = failureWindow.toNanos();
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maxTrackedKeys)
+                    .ticker(ticker)
+                    .expireAfter(new Expiry<String, Failures>() {
+                        @Override
+                        public long expireAfterCreate(String key, Failures value, long currentTime) {
+                            return Math.max(0, value.expiresAt - currentTime);
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String key, Failures value, long currentTime,
+                                long currentDuration) {
+                            return Math.max(0, value.expiresAt - currentTime);
+                        }
+
+                        @Override
+                        public long expireAfterRead(String key, Failures value, long currentTime,
+                                long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .recordStats()
+                    .build();
+            this.failures = cache.asMap();
+            this.failureCounter = meterRegistry.counter("auth.login.failures", "scope", name);
+            this.throttledCounter = meterRegistry.counter("auth.login.throttled", "scope", name);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.login.throttle." + name);
+        }
+
+        private long lockedFor(String key, long now) {
+            if (key == null) {
+                return 0;
+            }
+            Failures current = failures.get(key);
+            long remaining = current == null ? 0 : current.lockedUntil - now;
+            if (remaining > 0) {
+                throttledCounter.increment();
+                return remaining;
+            }
+            return 0;
+        }
+
+        private void recordFailure(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            failureCounter.increment();
+            failures.compute(key, (k, previous) -> {
+                int count = previous == null || previous.expiresAt - now <= 0 ? 1 : previous.count + 1;
+                long lockedUntil = count > maxFailures ? now + lockout(count - maxFailures) : now;
+                return new Failures(count, lockedUntil, lockedUntil + failureWindowNanos);
+            });
+        }
+
+        private long lockout(int excessFailures) {
+            long lockout = baseLockoutNanos << Math.min(excessFailures - 1, 30);
+            return lockout <= 0 || lockout > maxLockoutNanos ? maxLockoutNanos : lockout;
+        }
+
+        private void reset(String key) {
+            if (key != null) {
+                failures.remove(key);
+            }
+        }
+    }
+}
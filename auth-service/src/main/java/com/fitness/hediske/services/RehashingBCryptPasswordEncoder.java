@@ -0,0 +1,85 @@
+package com.fitness.hediske.services;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * BCrypt at a fixed, configured work factor shared by all instances. {@link #upgradeEncoding}
+ * reports hashes stored at a lower cost, so {@code DaoAuthenticationProvider} rehashes them on the
+ * next successful login after the cost is raised; hashes are never moved to a lower cost.
+ *
+ * {@link #calibrate} is advisory: it times a few hashes at the minimum cost and logs the largest
+ * cost that would still fit a latency budget on this machine (each step doubles the work).
+ */
+@Slf4j
+public class RehashingBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final int CALIBRATION_RUNS = 5;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+
+    public RehashingBCryptPasswordEncoder(int strength) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Returns the largest cost in {@code [minStrength, maxStrength]} whose hash time, extrapolated
+     * from the median of a few hashes at {@code minStrength}, stays within {@code targetLatency}.
+     * Only a suggestion for the configured strength; it differs between machines and under load.
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration-warmup");
+        long[] samples = new long[CALIBRATION_RUNS];
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-" + i);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long median = Math.max(1, samples[CALIBRATION_RUNS / 2]);
+
+        int strength = minStrength;
+        long estimate = median;
+        while (strength < maxStrength && estimate * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        log.info("BCrypt cost {} takes {} ms here; suggested cost {} (~{} ms, budget {} ms)", minStrength,
+                median / 1_000_000, strength, estimate / 1_000_000, targetLatency.toMillis());
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+}
@@ -0,0 +1,303 @@
+package com.fitness.hediske.services;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.SecureRandom;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fitness.hediske.entities.SigningKey;
+import com.fitness.hediske.repositories.SigningKeyRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the RS256 key pairs tokens are signed with and the JWKS document that publishes them.
+ *
+ * A new key is generated every {@code rotation-interval} and stored in the database, so every
+ * instance signs with and publishes the same keys. A new key is published in the JWKS for
+ * {@code activation-delay} before it signs anything, giving verifiers time to refresh their cached
+ * key set. A replaced key stays published, and accepted here, for {@code overlap} after its
+ * successor took over, which must cover the longest token lifetime (the refresh token).
+ *
+ * Each key has a {@code generation}, one more than the newest stored key's, and the column is
+ * unique: instances that decide to rotate at the same time (or start together on an empty table)
+ * all insert the same generation, only one insert succeeds and everyone then reloads the table.
+ * Private keys are stored AES-GCM encrypted with {@code encryption-key}, which has no default and
+ * must be provided through {@code JWT_KEY_ENCRYPTION_KEY}.
+ */
+@Slf4j
+@Service
+public class SigningKeyService {
+
+    public static final String ALGORITHM = "RS256";
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    static final String ENCRYPTED_PREFIX = "aes-gcm:";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration overlap;
+    private final int keySize;
+    private final SecretKey encryptionKey;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile KeySet keySet = new KeySet(List.of());
+
+    @Autowired
+    public SigningKeyService(SigningKeyRepository signingKeyRepository,
+            @Value("${application.security.jwt.keys.rotation-interval:P30D}") Duration rotationInterval,
+            @Value("${application.security.jwt.keys.activation-delay:PT10M}") Duration activationDelay,
+            @Value("${application.security.jwt.keys.overlap:P8D}") Duration overlap,
+            @Value("${application.security.jwt.keys.size:2048}") int keySize,
+            @Value("${application.security.jwt.keys.encryption-key}") String encryptionKey) {
+        this(signingKeyRepository, rotationInterval, activationDelay, overlap, keySize, encryptionKey,
+                Clock.systemUTC());
+    }
+
+    SigningKeyService(SigningKeyRepository signingKeyRepository, Duration rotationInterval, Duration activationDelay,
+            Duration overlap, int keySize, String encryptionKey, Clock clock) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.rotationInterval = rotationInterval;
+        this.activationDelay = activationDelay;
+        this.overlap = overlap;
+        this.keySize = keySize;
+        this.encryptionKey = aesKey(encryptionKey);
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        rotateIfDue();
+    }
+
+    /**
+     * Reloads the keys other instances may have added, generates a new key once the newest is
+     * {@code rotation-interval} old and deletes keys past their overlap.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.keys.check-interval:PT5M}",
+            initialDelayString = "${application.security.jwt.keys.check-interval:PT5M}")
+    public synchronized void rotateIfDue() {
+        Instant now = clock.instant();
+        List<SigningKey> stored = signingKeyRepository.findAllByOrderByCreatedAtDesc();
+        if (stored.isEmpty() || stored.get(0).getCreatedAt().plus(rotationInterval).isBefore(now)) {
+            insert(generate(nextGeneration(stored), now));
+            // whichever instance's insert won, all of them sign with what is stored
+            stored = signingKeyRepository.findAllByOrderByCreatedAtDesc();
+        }
+
+        List<LoadedKey> keys = new ArrayList<>();
+        Instant supersededAt = null;
+        for (SigningKey key : stored) {
+            if (supersededAt != null && supersededAt.plus(overlap).isBefore(now)) {
+                signingKeyRepository.delete(key);
+                log.info("Deleted signing key {} past its overlap", key.getKid());
+                continue;
+            }
+            keys.add(load(key));
+            // the key that replaced the next (older) one, once it starts signing
+            supersededAt = key.getCreatedAt().plus(activationDelay);
+        }
+        keySet = new KeySet(keys);
+    }
+
+    /**
+     * The newest key that has been published for at least {@code activation-delay}, or the oldest
+     * published key when none has been published that long (first start).
+     */
+    public LoadedKey signingKey() {
+        List<LoadedKey> keys = keySet.keys;
+        Instant activeBefore = clock.instant().minus(activationDelay);
+        for (LoadedKey key : keys) {
+            if (!key.createdAt.isAfter(activeBefore)) {
+                return key;
+            }
+        }
+        return keys.get(keys.size() - 1);
+    }
+
+    /** Public key for {@code kid}, or {@code null} if it is unknown or past its overlap. */
+    public PublicKey publicKey(String kid) {
+        LoadedKey key = keySet.byKid.get(kid);
+        return key != null ? key.publicKey : null;
+    }
+
+    /** The JWKS document; rebuilt only when the key set changes. */
+    public Map<String, Object> jwks() {
+        return keySet.jwks;
+    }
+
+    private static long nextGeneration(List<SigningKey> stored) {
+        return stored.stream()
+                .mapToLong(SigningKey::getGeneration)
+                .max()
+                .orElse(0) + 1;
+    }
+
+    private void insert(SigningKey key) {
+        try {
+            signingKeyRepository.saveAndFlush(key);
+            log.info("Generated signing key {} (generation {})", key.getKid(), key.getGeneration());
+        } catch (DataIntegrityViolationException e) {
+            log.info("Signing key generation {} was already created by another instance", key.getGeneration());
+        }
+    }
+
+    private SigningKey generate(long generation, Instant now) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(keySize);
+            KeyPair pair = generator.generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            return SigningKey.builder()
+                    .kid(kid)
+                    .generation(generation)
+                    .algorithm(ALGORITHM)
+                    .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                    .privateKey(encrypt(kid, pair.getPrivate().getEncoded()))
+                    .createdAt(now)
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate signing key", e);
+        }
+    }
+
+    private LoadedKey load(SigningKey key) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            PublicKey publicKey = factory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            PrivateKey privateKey = factory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(key.getKid(), key.getPrivateKey())));
+            return new LoadedKey(key.getKid(), publicKey, privateKey, key.getCreatedAt());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not load signing key " + key.getKid(), e);
+        }
+    }
+
+    // the kid is bound in as associated data, so an encrypted key cannot be moved to another row
+    private String encrypt(String kid, byte[] privateKey) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] ciphertext = cipher.doFinal(privateKey);
+        byte[] stored = Arrays.copyOf(iv, IV_LENGTH + ciphertext.length);
+        System.arraycopy(ciphertext, 0, stored, IV_LENGTH, ciphertext.length);
+        return ENCRYPTED_PREFIX + Base64.getEncoder().encodeToString(stored);
+    }
+
+    private byte[] decrypt(String kid, String storedKey) throws GeneralSecurityException {
+        if (!storedKey.startsWith(ENCRYPTED_PREFIX)) {
+            throw new IllegalStateException("Signing key " + kid + " is not stored encrypted");
+        }
+        byte[] stored = Base64.getDecoder().decode(storedKey.substring(ENCRYPTED_PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, stored, 0, IV_LENGTH));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(stored, IV_LENGTH, stored.length - IV_LENGTH);
+    }
+
+    private static SecretKey aesKey(String base64) {
+        if (base64 == null || base64.isBlank()) {
+            throw new IllegalStateException(
+                    "application.security.jwt.keys.encryption-key must be set (JWT_KEY_ENCRYPTION_KEY)");
+        }
+        byte[] key = Base64.getDecoder().decode(base64);
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException(
+                    "application.security.jwt.keys.encryption-key must be a base64 AES key of 16, 24 or 32 bytes");
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    public static final class LoadedKey {
+        private final String kid;
+        private final PublicKey publicKey;
+        private final PrivateKey privateKey;
+        private final Instant createdAt;
+
+        private LoadedKey(String kid, PublicKey publicKey, PrivateKey privateKey, Instant createdAt) {
+            this.kid = kid;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+            this.createdAt = createdAt;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+    }
+
+    private static final class KeySet {
+        private final List<LoadedKey> keys;
+        private final Map<String, LoadedKey> byKid = new LinkedHashMap<>();
+        private final Map<String, Object> jwks;
+
+        private KeySet(List<LoadedKey> keys) {
+            this.keys = keys;
+            List<Map<String, Object>> jwkList = new ArrayList<>();
+            for (LoadedKey key : keys) {
+                byKid.put(key.kid, key);
+                RSAPublicKey rsa = (RSAPublicKey) key.publicKey;
+                Map<String, Object> jwk = new LinkedHashMap<>();
+                jwk.put("kty", "RSA");
+                jwk.put("use", "sig");
+                jwk.put("alg", ALGORITHM);
+                jwk.put("kid", key.kid);
+                jwk.put("n", base64Url(rsa.getModulus()));
+                jwk.put("e", base64Url(rsa.getPublicExponent()));
+                jwkList.add(jwk);
+            }
+            this.jwks = Map.of("keys", List.copyOf(jwkList));
+        }
+
+        private static String base64Url(BigInteger value) {
+            byte[] bytes = value.toByteArray();
+            // drop the sign byte BigInteger adds when the top bit is set
+            if (bytes.length > 1 && bytes[0] == 0) {
+                bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+            }
+            return BASE64URL.encodeToString(bytes);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.fitness.hediske.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fitness.hediske.entities.RevokedToken;
+import com.fitness.hediske.entities.User;
+import com.fitness.hediske.repositories.RevokedTokenRepository;
+import com.fitness.hediske.repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers "has this token been revoked?" without touching the database.
+ *
+ * Two kinds of revocation exist: a single token by its {@code jti} (logout), and every token of a
+ * user issued before their current token version (password reset). Both are loaded into a Bloom
+ * filter plus exact in-memory sets at startup and every
+ * {@code application.security.revocation.refresh-interval}, which also picks up revocations made
+ * by other instances and drops expired token ids. Almost every token misses the filter and is
+ * decided by a few bit reads; only filter positives consult the exact sets.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final String TOKEN_KEY_PREFIX = "jti:";
+    private static final String USER_KEY_PREFIX = "user:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final long expectedRevocations;
+    private final double falsePositiveProbability;
+
+    private volatile State state;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, UserRepository userRepository,
+            @Value("${application.security.revocation.expected-revocations:100000}") long expectedRevocations,
+            @Value("${application.security.revocation.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.state = new State(new BloomFilter(expectedRevocations, falsePositiveProbability));
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the filter and exact sets from the database. Revocations are serialized with the
+     * rebuild so none recorded while it runs can be lost.
+     */
+    @Scheduled(fixedDelayString = "${application.security.revocation.refresh-interval:60000}",
+            initialDelayString = "${application.security.revocation.refresh-interval:60000}")
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteByExpiresAtBefore(now);
+        List<RevokedToken> revokedTokens = revokedTokenRepository.findByExpiresAtAfter(now);
+        List<UserRepository.UserTokenVersion> userVersions = userRepository.findByTokenVersionGreaterThan(0);
+
+        long entries = revokedTokens.size() + userVersions.size();
+        State rebuilt = new State(new BloomFilter(Math.max(expectedRevocations, entries * 2), falsePositiveProbability));
+        revokedTokens.forEach(token -> rebuilt.addToken(token.getTokenId()));
+        userVersions.forEach(user -> rebuilt.addUserVersion(user.getEmail(), user.getTokenVersion()));
+        state = rebuilt;
+        log.info("Loaded {} revoked tokens and {} revoked user token versions", revokedTokens.size(),
+                userVersions.size());
+    }
+
+    public boolean isRevoked(TokenValidation validation) {
+        State current = state;
+        String tokenId = validation.getTokenId();
+        if (tokenId != null && current.filter.mightContain(TOKEN_KEY_PREFIX + tokenId)
+                && current.revokedTokenIds.contains(tokenId)) {
+            return true;
+        }
+        String subject = validation.getSubject();
+        if (subject != null && current.filter.mightContain(USER_KEY_PREFIX + subject)) {
+            Integer minimumVersion = current.userVersions.get(subject);
+            int tokenVersion = validation.getTokenVersion() != null ? validation.getTokenVersion() : 0;
+            return minimumVersion != null && tokenVersion < minimumVersion;
+        }
+        return false;
+    }
+
+    /** Revokes one token until it expires. Tokens without a {@code jti} cannot be revoked individually. */
+    public synchronized void revokeToken(TokenValidation validation) {
+        if (validation.getTokenId() == null || validation.getExpiresAt() == null) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(validation.getTokenId())
+                .email(validation.getSubject())
+                .expiresAt(validation.getExpiresAt())
+                .build());
+        state.addToken(validation.getTokenId());
+    }
+
+    /** Revokes every token issued to {@code user} so far by bumping and saving their token version. */
+    public synchronized void revokeAllTokens(User user) {
+        user.setTokenVersion(user.getCurrentTokenVersion() + 1);
+        userRepository.save(user);
+        state.addUserVersion(user.getEmail(), user.getTokenVersion());
+    }
+
+    private static final class State {
+        private final BloomFilter filter;
+        private final Set<String> revokedTokenIds = ConcurrentHashMap.newKeySet();
+        private final Map<String, Integer> userVersions = new ConcurrentHashMap<>();
+
+        private State(BloomFilter filter) {
+            this.filter = filter;
+        }
+
+        // exact entry first, so a reader that passes the filter always finds it
+        private void addToken(String tokenId) {
+            revokedTokenIds.add(tokenId);
+            filter.put(TOKEN_KEY_PREFIX + tokenId);
+        }
+
+        private void addUserVersion(String email, int version) {
+            userVersions.merge(email, version, Math::max);
+            filter.put(USER_KEY_PREFIX + email);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.fitness.hediske.services;
+
+import java.time.Instant;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of parsing and verifying a token once with {@link JwtService#validate(String)}.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TokenValidation {
+
+    public enum Status {
+        /** Signature verified and not expired. */
+        VALID,
+        /** Signature verified but past its expiry; the claims are still reported. */
+        EXPIRED,
+        /** Malformed, unsupported or signed with another key. */
+        INVALID
+    }
+
+    private final Status status;
+    private final String subject;
+    private final String type;
+    private final Instant expiresAt;
+    /** {@code jti}; {@code null} on tokens issued before token ids were added. */
+    private final String tokenId;
+    private final String role;
+    /** {@code ver}, the user's token version at issue time; {@code null} on older tokens. */
+    private final Integer tokenVersion;
+
+    static TokenValidation valid(String subject, String type, Instant expiresAt, String tokenId, String role,
+            Integer tokenVersion) {
+        return new TokenValidation(Status.VALID, subject, type, expiresAt, tokenId, role, tokenVersion);
+    }
+
+    static TokenValidation expired(String subject, String type, Instant expiresAt) {
+        return new TokenValidation(Status.EXPIRED, subject, type, expiresAt, null, null, null);
+    }
+
+    static TokenValidation invalid() {
+        return new TokenValidation(Status.INVALID, null, null, null, null, null, null);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    /**
+     * Valid access token carrying the role and version claims, so it can be introspected without
+     * loading the user.
+     */
+    public boolean isSelfContained() {
+        return isValid() && subject != null && JwtService.ACCESS_TOKEN_TYPE.equals(type) && role != null
+                && tokenVersion != null;
+    }
+
+    /** Valid and issued to {@code userDetails}. */
+    public boolean isValidFor(UserDetails userDetails) {
+        return isValid() && subject != null && subject.equals(userDetails.getUsername());
+    }
+
+    /** Valid, issued to {@code userDetails} and of the given {@code type} claim. */
+    public boolean isValidFor(UserDetails userDetails, String expectedType) {
+        return isValidFor(userDetails) && expectedType.equals(type);
+    }
+}
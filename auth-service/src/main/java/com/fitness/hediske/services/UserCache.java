@@ -0,0 +1,74 @@
+package com.fitness.hediske.services;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fitness.hediske.entities.User;
+import com.fitness.hediske.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, TTL-based cache of users by email for the read-only authentication paths (JWT filter,
+ * login, introspection, refresh). Cached entities are detached and shared, so they must not be
+ * modified: write paths load the user from {@link UserRepository} and call {@link #invalidate}
+ * after saving. Unknown emails are not cached, so a new registration is visible immediately.
+ * Hit ratio and evictions are exported as the {@code cache=auth.users} cache metrics.
+ */
+@Service
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${application.user-cache.max-size:10000}") long maxSize,
+            @Value("${application.user-cache.ttl:PT1M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.users");
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(cache.get(email, key -> userRepository.findByEmail(key).orElse(null)));
+    }
+
+    /** Users for the given emails, loading all misses with one query; unknown emails are absent. */
+    public Map<String, User> findByEmailIn(Collection<String> emails) {
+        return cache.getAll(emails, misses -> userRepository.findByEmailIn(Set.copyOf(misses)).stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity())));
+    }
+
+    /**
+     * Drops {@code email} now and, inside a transaction, again after commit, so a concurrent read
+     * cannot re-cache the row as it was before the write.
+     */
+    public void invalidate(String email) {
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.fitness.hediske.services;
 
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,14 +14,15 @@ import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
+    private final UserCache userCache;
     private final UserRepository userRepository;
     
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        com.fitness.hediske.entities.User user =  userRepository.findByEmail(username).orElseThrow (() -> 
+        com.fitness.hediske.entities.User user =  userCache.findByEmail(username).orElseThrow (() -> 
             new UsernameNotFoundException("User not found with username: " + username));
 
         return User.builder()
@@ -30,5 +32,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .build();
 
     }
+
+    /** Stores a rehashed password; called by the authentication provider after a successful login. */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        // reload rather than trust the cached copy, so only the password changes
+        com.fitness.hediske.entities.User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: "
+                        + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userCache.invalidate(user.getEmail());
+        return User.withUserDetails(userDetails).password(newPassword).build();
+    }
     
 }
@@ -0,0 +1,90 @@
+package com.fitness.hediske.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fitness.hediske.repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bloom filter over registered userids and emails, so registration only asks the database
+ * whether a userid or email is taken when the filter says it might be. A negative is definite for
+ * users known to this instance; users registered on other instances since the last rebuild are
+ * caught by the unique constraints on insert, and picked up by the next rebuild.
+ */
+@Slf4j
+@Service
+public class UserIdentityFilter {
+
+    private static final String USERID_KEY_PREFIX = "userid:";
+    private static final String EMAIL_KEY_PREFIX = "email:";
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double falsePositiveProbability;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    public UserIdentityFilter(UserRepository userRepository,
+            @Value("${application.registration-filter.expected-users:1000000}") long expectedUsers,
+            @Value("${application.registration-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = newFilter(0);
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every userid and email. Additions made while the rebuild runs go to both filters, so
+     * they survive the swap; the unique constraints cover any insert that races the reload itself.
+     */
+    @Scheduled(fixedDelayString = "${application.registration-filter.refresh-interval:600000}",
+            initialDelayString = "${application.registration-filter.refresh-interval:600000}")
+    public synchronized void rebuild() {
+        BloomFilter rebuilt = newFilter(userRepository.count());
+        rebuilding = rebuilt;
+        List<UserRepository.UserIdentity> users = userRepository.findAllProjectedBy();
+        users.forEach(user -> put(rebuilt, user.getUserid(), user.getEmail()));
+        filter = rebuilt;
+        rebuilding = null;
+        log.info("Loaded {} users into the registration filter", users.size());
+    }
+
+    public boolean mightContainUserid(String userid) {
+        return filter.mightContain(USERID_KEY_PREFIX + userid);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return filter.mightContain(EMAIL_KEY_PREFIX + email);
+    }
+
+    /** Records a newly inserted user. A rolled-back insert only leaves a harmless false positive. */
+    public void add(String userid, String email) {
+        put(filter, userid, email);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            put(next, userid, email);
+        }
+    }
+
+    // two keys (userid and email) per user
+    private BloomFilter newFilter(long users) {
+        return new BloomFilter(Math.max(expectedUsers, users) * 2, falsePositiveProbability);
+    }
+
+    private static void put(BloomFilter target, String userid, String email) {
+        target.put(USERID_KEY_PREFIX + userid);
+        target.put(EMAIL_KEY_PREFIX + email);
+    }
+}
@@ -0,0 +1,121 @@
+package com.fitness.hediske.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fitness.hediske.entities.SigningKey;
+import com.fitness.hediske.entities.User;
+import com.fitness.hediske.repositories.SigningKeyRepository;
+import com.fitness.hediske.services.JwtService;
+import com.fitness.hediske.services.SigningKeyService;
+import com.fitness.hediske.services.TokenValidation;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Cost of issuing and checking tokens with {@link JwtService}, for each signing algorithm.
+ *
+ * {@code generateToken} issues an access token with the production claim set (type, role, roles,
+ * ver, jti) for a user holding two roles; {@code generateRefreshToken} the smaller refresh token.
+ * {@code validateAccessToken} and {@code validatePasswordResetToken} are the former
+ * {@code isTokenValid} and {@code isPasswordResetTokenValid}: one parse plus the subject, type and
+ * expiry checks. {@code extractSubject} is the former {@code extractUsername}, which now costs the
+ * same single parse. Keys come from a {@link SigningKeyService} over an in-memory repository. Run
+ * with {@code -prof gc} (the benchmark profile does) for {@code gc.alloc.rate.norm}, the bytes
+ * allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "QNP5EZNjpOBl++i0jpN06cmaoeCA+d3VMoFHiOns7G4=";
+
+    @Param({ "RS256", "HS256" })
+    public String algorithm;
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+    private String passwordResetToken;
+
+    @Setup
+    public void setUp() {
+        SigningKeyRepository repository = mock(SigningKeyRepository.class);
+        List<SigningKey> stored = new ArrayList<>();
+        when(repository.findAllByOrderByCreatedAtDesc()).thenAnswer(invocation -> List.copyOf(stored));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        SigningKeyService signingKeyService = new SigningKeyService(repository, Duration.ofDays(30),
+                Duration.ofMinutes(10), Duration.ofDays(8), 2048, SECRET);
+        signingKeyService.init();
+
+        jwtService = new JwtService(signingKeyService, SignatureAlgorithm.forName(algorithm), SECRET,
+                86_400_000L, 604_800_000L, 360_000L);
+        user = User.builder()
+                .id(42L)
+                .userid("jane.doe")
+                .email("jane.doe@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3eXKj0fBbuwnkgEnXiF4.fK")
+                .roles(Set.of("USER", "COACH"))
+                .tokenVersion(3)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .emailVerified(true)
+                .build();
+        accessToken = jwtService.generateToken(user);
+        passwordResetToken = jwtService.generatePasswordResetToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public boolean validateAccessToken() {
+        return jwtService.validate(accessToken).isValidFor(user);
+    }
+
+    @Benchmark
+    public boolean validatePasswordResetToken() {
+        return jwtService.validate(passwordResetToken).isValidFor(user, JwtService.PASSWORD_RESET_TOKEN_TYPE);
+    }
+
+    @Benchmark
+    public String extractSubject() {
+        TokenValidation validation = jwtService.validate(accessToken);
+        return validation.getSubject();
+    }
+}
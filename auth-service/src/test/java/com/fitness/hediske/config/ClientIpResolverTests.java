@@ -0,0 +1,58 @@
+package com.fitness.hediske.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientIpResolverTests {
+
+	private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", "::1"));
+
+	@Test
+	void ignoresForwardedForFromUntrustedPeers() {
+		assertEquals("203.0.113.7", resolve("203.0.113.7", "198.51.100.1"));
+	}
+
+	@Test
+	void takesTheHopTheTrustedProxyAppended() {
+		// the first entry was sent by the client and could be anything
+		assertEquals("203.0.113.7", resolve("10.0.0.5", "198.51.100.1, 203.0.113.7"));
+	}
+
+	@Test
+	void skipsChainedTrustedProxies() {
+		assertEquals("203.0.113.7", resolve("10.0.0.5", "203.0.113.7, 10.1.2.3"));
+		assertEquals("203.0.113.7", resolve("::1", "203.0.113.7"));
+	}
+
+	@Test
+	void usesThePeerWithoutForwardedFor() {
+		assertEquals("10.0.0.5", resolve("10.0.0.5", null));
+	}
+
+	@Test
+	void neverTrustsHostNames() {
+		assertEquals("proxy.internal", resolve("10.0.0.5", "203.0.113.7, proxy.internal"));
+	}
+
+	@Test
+	void trustsNothingWhenNoProxiesAreConfigured() {
+		assertEquals("10.0.0.5", new ClientIpResolver(List.of()).resolve(request("10.0.0.5", "203.0.113.7")));
+	}
+
+	private String resolve(String remoteAddr, String forwardedFor) {
+		return resolver.resolve(request(remoteAddr, forwardedFor));
+	}
+
+	private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr(remoteAddr);
+		if (forwardedFor != null) {
+			request.addHeader("X-Forwarded-For", forwardedFor);
+		}
+		return request;
+	}
+}
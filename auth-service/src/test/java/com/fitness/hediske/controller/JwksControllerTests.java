@@ -0,0 +1,80 @@
+package com.fitness.hediske.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigInteger;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fitness.hediske.entities.SigningKey;
+import com.fitness.hediske.repositories.SigningKeyRepository;
+import com.fitness.hediske.services.SigningKeyService;
+
+class JwksControllerTests {
+
+	@Test
+	void publishesTheSigningKeyAsACacheableJwk() throws Exception {
+		SigningKeyService signingKeyService = signingKeyService();
+		String kid = signingKeyService.signingKey().getKid();
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(signingKeyService)).build();
+
+		mockMvc.perform(get("/.well-known/jwks.json"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "max-age=300, public"))
+				.andExpect(jsonPath("$.keys.length()").value(1))
+				.andExpect(jsonPath("$.keys[0].kty").value("RSA"))
+				.andExpect(jsonPath("$.keys[0].use").value("sig"))
+				.andExpect(jsonPath("$.keys[0].alg").value("RS256"))
+				.andExpect(jsonPath("$.keys[0].kid").value(kid));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void encodesModulusAndExponentAsUnsignedBase64Url() {
+		SigningKeyService signingKeyService = signingKeyService();
+		String kid = signingKeyService.signingKey().getKid();
+
+		Map<String, Object> jwk = ((List<Map<String, Object>>) signingKeyService.jwks().get("keys")).get(0);
+		RSAPublicKey publicKey = (RSAPublicKey) signingKeyService.publicKey(kid);
+
+		assertEquals(publicKey.getModulus(), unsigned((String) jwk.get("n")));
+		assertEquals(publicKey.getPublicExponent(), unsigned((String) jwk.get("e")));
+	}
+
+	private static BigInteger unsigned(String base64Url) {
+		byte[] bytes = Base64.getUrlDecoder().decode(base64Url);
+		// a leading zero would mean the sign byte was not stripped
+		assertNotEquals(0, bytes[0]);
+		return new BigInteger(1, bytes);
+	}
+
+	private static SigningKeyService signingKeyService() {
+		SigningKeyRepository repository = mock(SigningKeyRepository.class);
+		List<SigningKey> stored = new ArrayList<>();
+		when(repository.findAllByOrderByCreatedAtDesc()).thenAnswer(invocation -> List.copyOf(stored));
+		when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+			stored.add(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+		SigningKeyService signingKeyService = new SigningKeyService(repository, Duration.ofDays(30),
+				Duration.ofMinutes(10), Duration.ofDays(8), 2048, "w43f4w6BHAJlGrEMqJ903mqJcyIyScDiZJEztx48YKg=");
+		signingKeyService.init();
+		return signingKeyService;
+	}
+}
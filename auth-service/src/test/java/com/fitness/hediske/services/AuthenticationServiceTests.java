@@ -0,0 +1,129 @@
+package com.fitness.hediske.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fitness.hediske.dto.AuthenticationResponse;
+import com.fitness.hediske.dto.RegisterRequest;
+import com.fitness.hediske.entities.User;
+import com.fitness.hediske.exceptions.InvalidTokenException;
+import com.fitness.hediske.interfaces.EmailService;
+import com.fitness.hediske.repositories.UserRepository;
+
+class AuthenticationServiceTests {
+
+	private static final String EMAIL = "jane.doe@example.com";
+	private static final Instant EXPIRES_AT = Instant.parse("2100-01-01T00:00:00Z");
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+	private final JwtService jwtService = mock(JwtService.class);
+	private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+	private final UserCache userCache = mock(UserCache.class);
+	private final EmailService emailService = mock(EmailService.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final AuthenticationService service = new AuthenticationService(userRepository, passwordEncoder,
+			jwtService, mock(AuthenticationManager.class), emailService, tokenRevocationService, userCache,
+			mock(UserIdentityFilter.class), mock(LoginThrottle.class), new TransactionTemplate(transactionManager));
+
+	private final User user = User.builder().email(EMAIL).build();
+
+	@Test
+	void refreshIssuesAnAccessTokenForARefreshToken() {
+		token("refresh", JwtService.REFRESH_TOKEN_TYPE);
+		when(jwtService.generateToken(user)).thenReturn("access");
+
+		AuthenticationResponse response = service.refreshToken("refresh");
+
+		assertEquals("access", response.getToken());
+		assertEquals("refresh", response.getRefreshToken());
+	}
+
+	@Test
+	void refreshRejectsAccessTokens() {
+		token("access", JwtService.ACCESS_TOKEN_TYPE);
+
+		assertThrows(InvalidTokenException.class, () -> service.refreshToken("access"));
+		verify(jwtService, never()).generateToken(any());
+	}
+
+	@Test
+	void refreshRejectsPasswordResetTokens() {
+		token("reset", JwtService.PASSWORD_RESET_TOKEN_TYPE);
+
+		assertThrows(InvalidTokenException.class, () -> service.refreshToken("reset"));
+		verify(jwtService, never()).generateToken(any());
+	}
+
+	@Test
+	void refreshRejectsRevokedRefreshTokens() {
+		TokenValidation validation = token("refresh", JwtService.REFRESH_TOKEN_TYPE);
+		when(tokenRevocationService.isRevoked(validation)).thenReturn(true);
+
+		assertThrows(InvalidTokenException.class, () -> service.refreshToken("refresh"));
+		verify(jwtService, never()).generateToken(any());
+	}
+
+	@Test
+	void registerHashesThePasswordBeforeOpeningTheTransaction() {
+		when(passwordEncoder.encode("secret")).thenReturn("hash");
+		when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		service.register(RegisterRequest.builder().username("jane").email(EMAIL).password("secret").build());
+
+		InOrder order = inOrder(passwordEncoder, transactionManager, userRepository, emailService);
+		order.verify(passwordEncoder).encode("secret");
+		order.verify(transactionManager).getTransaction(any());
+		order.verify(userRepository).saveAndFlush(any());
+		order.verify(emailService).sendVerificationEmail(any(), any());
+		order.verify(transactionManager).commit(any());
+	}
+
+	@Test
+	void resetPasswordHashesThePasswordBeforeOpeningTheTransaction() {
+		token("reset", JwtService.PASSWORD_RESET_TOKEN_TYPE);
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+		when(passwordEncoder.encode("secret")).thenReturn("hash");
+
+		service.resetPassword("reset", "secret");
+
+		InOrder order = inOrder(passwordEncoder, transactionManager, userRepository, tokenRevocationService);
+		order.verify(passwordEncoder).encode("secret");
+		order.verify(transactionManager).getTransaction(any());
+		order.verify(userRepository).findByEmail(EMAIL);
+		order.verify(tokenRevocationService).revokeAllTokens(user);
+		order.verify(transactionManager).commit(any());
+		assertEquals("hash", user.getPassword());
+	}
+
+	@Test
+	void resetPasswordRejectsOtherTokensWithoutHashing() {
+		token("access", JwtService.ACCESS_TOKEN_TYPE);
+
+		assertThrows(InvalidTokenException.class, () -> service.resetPassword("access", "secret"));
+		verify(passwordEncoder, never()).encode(any());
+	}
+
+	private TokenValidation token(String token, String type) {
+		TokenValidation validation = TokenValidation.valid(EMAIL, type, EXPIRES_AT, "jti-" + token, "USER", 0);
+		when(jwtService.validate(token)).thenReturn(validation);
+		when(userCache.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+		return validation;
+	}
+}
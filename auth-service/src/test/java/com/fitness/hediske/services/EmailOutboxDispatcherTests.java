@@ -0,0 +1,163 @@
+package com.fitness.hediske.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fitness.hediske.entities.OutboxEmail;
+import com.fitness.hediske.repositories.OutboxEmailRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailOutboxDispatcherTests {
+
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+	private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+	private static final Duration MAX_BACKOFF = Duration.ofSeconds(60);
+	private static final int MAX_ATTEMPTS = 5;
+
+	private final OutboxEmailRepository repository = mock(OutboxEmailRepository.class);
+	private final JavaMailSender mailSender = mock(JavaMailSender.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(repository, mailSender,
+			new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, "http://localhost:8080",
+			50, MAX_ATTEMPTS, INITIAL_BACKOFF, MAX_BACKOFF, Duration.ofMinutes(2), Duration.ofDays(1),
+			Clock.fixed(NOW, ZoneOffset.UTC));
+
+	@Test
+	void deletesDeliveredRowsAndRetriesOnlyTheFailedOnes() {
+		OutboxEmail first = email(1L, "a@example.com", 0);
+		OutboxEmail second = email(2L, "b@example.com", 0);
+		OutboxEmail third = email(3L, "c@example.com", 0);
+		claims(first, second, third);
+		// JavaMailSender reports the messages that failed, keyed by the message itself
+		doThrow(new MailSendException(Map.of(message("b@example.com", "token-2"), new RuntimeException("550 mailbox unavailable"))))
+				.when(mailSender).send(any(SimpleMailMessage[].class));
+
+		assertEquals(3, dispatcher.dispatchBatch());
+
+		verify(repository).deleteAllByIdInBatch(List.of(1L, 3L));
+		assertEquals(List.of(second), saved());
+		assertEquals(1, second.getAttempts());
+		assertEquals(OutboxEmail.Status.PENDING, second.getStatus());
+		assertEquals(NOW.plus(INITIAL_BACKOFF), second.getNextAttemptAt());
+		assertEquals("550 mailbox unavailable", second.getLastError());
+		assertEquals(2.0, counter("sent"));
+		assertEquals(1.0, counter("retried"));
+	}
+
+	@Test
+	void backsOffExponentiallyUpToTheCap() {
+		OutboxEmail secondAttempt = email(1L, "a@example.com", 1);
+		OutboxEmail thirdAttempt = email(2L, "b@example.com", 2);
+		OutboxEmail fourthAttempt = email(3L, "c@example.com", 3);
+		claims(secondAttempt, thirdAttempt, fourthAttempt);
+		doThrow(new MailSendException("Mail server connection failed")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+		dispatcher.dispatchBatch();
+
+		assertEquals(NOW.plusSeconds(20), secondAttempt.getNextAttemptAt());
+		assertEquals(NOW.plusSeconds(40), thirdAttempt.getNextAttemptAt());
+		assertEquals(NOW.plus(MAX_BACKOFF), fourthAttempt.getNextAttemptAt());
+		verify(repository, never()).deleteAllByIdInBatch(any());
+	}
+
+	@Test
+	void marksRowsFailedAfterMaxAttempts() {
+		OutboxEmail lastAttempt = email(1L, "a@example.com", MAX_ATTEMPTS - 1);
+		claims(lastAttempt);
+		doThrow(new MailSendException("Mail server connection failed")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+		dispatcher.dispatchBatch();
+
+		assertEquals(OutboxEmail.Status.FAILED, lastAttempt.getStatus());
+		assertEquals(MAX_ATTEMPTS, lastAttempt.getAttempts());
+		assertEquals(List.of(lastAttempt), saved());
+		assertEquals(1.0, counter("failed"));
+		assertEquals(0.0, counter("retried"));
+	}
+
+	@Test
+	void leasesClaimedRowsWhileTheyAreBeingSent() {
+		OutboxEmail email = email(1L, "a@example.com", 0);
+		claims(email);
+		doAnswer(invocation -> {
+			// another poll or instance skips the row until the lease runs out
+			assertEquals(NOW.plus(Duration.ofMinutes(2)), email.getNextAttemptAt());
+			return null;
+		}).when(mailSender).send(any(SimpleMailMessage[].class));
+
+		dispatcher.dispatchBatch();
+
+		verify(repository).findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(OutboxEmail.Status.PENDING, NOW,
+				PageRequest.of(0, 50));
+		verify(repository).deleteAllByIdInBatch(List.of(1L));
+	}
+
+	@Test
+	void purgesFailedRowsPastTheRetention() {
+		dispatcher.purgeFailed();
+
+		verify(repository).deleteByStatusAndCreatedAtBefore(OutboxEmail.Status.FAILED, NOW.minus(Duration.ofDays(1)));
+	}
+
+	private void claims(OutboxEmail... emails) {
+		when(repository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any()))
+				.thenReturn(List.of(emails));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<OutboxEmail> saved() {
+		ArgumentCaptor<List<OutboxEmail>> saved = ArgumentCaptor.forClass(List.class);
+		verify(repository).saveAll(saved.capture());
+		return saved.getValue();
+	}
+
+	private double counter(String result) {
+		return meterRegistry.counter("auth.email.outbox", "result", result).count();
+	}
+
+	private static OutboxEmail email(long id, String recipient, int attempts) {
+		return OutboxEmail.builder()
+				.id(id)
+				.type(OutboxEmail.Type.PASSWORD_RESET)
+				.recipient(recipient)
+				.token("token-" + id)
+				.status(OutboxEmail.Status.PENDING)
+				.attempts(attempts)
+				.nextAttemptAt(NOW)
+				.createdAt(NOW)
+				.build();
+	}
+
+	// the message the dispatcher composes for a password reset email, so it matches by equals
+	private static SimpleMailMessage message(String recipient, String token) {
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setFrom("noreply@fitnessapp.com");
+		message.setTo(recipient);
+		message.setSubject("Reset your password");
+		message.setText("Use the following token to reset your password. It expires shortly:\n" + token);
+		return message;
+	}
+}
@@ -0,0 +1,106 @@
+package com.fitness.hediske.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.fitness.hediske.exceptions.TooManyAttemptsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginThrottleTests {
+
+	private static final String EMAIL = "jane.doe@example.com";
+	private static final String IP = "203.0.113.7";
+	private static final Duration FAILURE_WINDOW = Duration.ofMinutes(15);
+
+	private final AtomicLong now = new AtomicLong();
+	private final LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(), true, 3, 10,
+			Duration.ofSeconds(1), Duration.ofSeconds(8), FAILURE_WINDOW, 1000, now::get);
+
+	@Test
+	void allowsMaxFailuresBeforeLockingOut() {
+		fail(3);
+		throttle.check(EMAIL, IP);
+
+		fail(1);
+
+		assertEquals(1, lockedForSeconds());
+	}
+
+	@Test
+	void doublesTheLockoutPerFurtherFailure() {
+		fail(4);
+		assertEquals(1, lockedForSeconds());
+
+		fail(1);
+		assertEquals(2, lockedForSeconds());
+
+		fail(1);
+		assertEquals(4, lockedForSeconds());
+	}
+
+	@Test
+	void capsTheLockoutAtMaxLockout() {
+		fail(10);
+
+		assertEquals(8, lockedForSeconds());
+	}
+
+	@Test
+	void liftsTheLockoutOnceItRunsOut() {
+		fail(5);
+		advance(Duration.ofSeconds(2));
+
+		throttle.check(EMAIL, IP);
+	}
+
+	@Test
+	void forgetsFailuresAfterTheWindow() {
+		fail(3);
+		advance(FAILURE_WINDOW.plusSeconds(1));
+
+		fail(3);
+		throttle.check(EMAIL, IP);
+
+		fail(1);
+		assertEquals(1, lockedForSeconds());
+	}
+
+	@Test
+	void successfulLoginResetsTheEmailCount() {
+		fail(3);
+		throttle.recordSuccess("Jane.Doe@Example.com ");
+
+		fail(3);
+		throttle.check(EMAIL, IP);
+	}
+
+	@Test
+	void locksOutAnIpFailingAcrossManyEmails() {
+		for (int i = 0; i < 11; i++) {
+			throttle.recordFailure("user" + i + "@example.com", IP);
+		}
+
+		assertThrows(TooManyAttemptsException.class, () -> throttle.check("someone.else@example.com", IP));
+		throttle.check("someone.else@example.com", "198.51.100.1");
+	}
+
+	private void fail(int times) {
+		for (int i = 0; i < times; i++) {
+			throttle.recordFailure(EMAIL, IP);
+		}
+	}
+
+	private void advance(Duration duration) {
+		now.addAndGet(duration.toNanos());
+	}
+
+	private long lockedForSeconds() {
+		return assertThrows(TooManyAttemptsException.class, () -> throttle.check(EMAIL, IP)).getRetryAfterSeconds();
+	}
+}
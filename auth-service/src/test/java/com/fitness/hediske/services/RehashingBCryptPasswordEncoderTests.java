@@ -0,0 +1,60 @@
+package com.fitness.hediske.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class RehashingBCryptPasswordEncoderTests {
+
+	private static final String SALT_AND_HASH = "7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3eXKj0fBbuwnkgEnXiF4.fK";
+
+	private final RehashingBCryptPasswordEncoder encoder = new RehashingBCryptPasswordEncoder(12);
+
+	@Test
+	void upgradesHashesStoredAtALowerCost() {
+		assertTrue(encoder.upgradeEncoding("$2a$10$" + SALT_AND_HASH));
+		assertTrue(encoder.upgradeEncoding("$2b$11$" + SALT_AND_HASH));
+		assertTrue(encoder.upgradeEncoding("$2y$04$" + SALT_AND_HASH));
+		assertTrue(encoder.upgradeEncoding("$2$10$" + SALT_AND_HASH));
+	}
+
+	@Test
+	void neverDowngradesHashesStoredAtTheSameOrAHigherCost() {
+		assertFalse(encoder.upgradeEncoding("$2a$12$" + SALT_AND_HASH));
+		assertFalse(encoder.upgradeEncoding("$2a$13$" + SALT_AND_HASH));
+		assertFalse(encoder.upgradeEncoding("$2b$31$" + SALT_AND_HASH));
+	}
+
+	@Test
+	void ignoresValuesThatAreNotBCryptHashes() {
+		assertFalse(encoder.upgradeEncoding(null));
+		assertFalse(encoder.upgradeEncoding(""));
+		assertFalse(encoder.upgradeEncoding("plaintext"));
+		assertFalse(encoder.upgradeEncoding("$2c$10$" + SALT_AND_HASH));
+		assertFalse(encoder.upgradeEncoding("$2a$1$" + SALT_AND_HASH));
+		assertFalse(encoder.upgradeEncoding("{noop}$2a$10$" + SALT_AND_HASH));
+	}
+
+	@Test
+	void rehashesAtTheConfiguredCost() {
+		RehashingBCryptPasswordEncoder fast = new RehashingBCryptPasswordEncoder(4);
+		String hash = fast.encode("secret");
+
+		assertTrue(hash.startsWith("$2a$04$"));
+		assertTrue(fast.matches("secret", hash));
+		assertFalse(fast.upgradeEncoding(hash));
+		assertTrue(new RehashingBCryptPasswordEncoder(5).upgradeEncoding(hash));
+	}
+
+	@Test
+	void calibrationSuggestsACostWithinTheBounds() {
+		int suggested = RehashingBCryptPasswordEncoder.calibrate(Duration.ofMillis(50), 4, 8);
+
+		assertTrue(suggested >= 4 && suggested <= 8);
+		assertEquals(4, RehashingBCryptPasswordEncoder.calibrate(Duration.ZERO, 4, 8));
+	}
+}
@@ -0,0 +1,207 @@
+package com.fitness.hediske.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.fitness.hediske.entities.SigningKey;
+import com.fitness.hediske.repositories.SigningKeyRepository;
+
+class SigningKeyServiceTests {
+
+	static final String ENCRYPTION_KEY = "NSBuTuQjGNjWjOcFK7XxiiWq1jywj6BS21CuE/q8+Qs=";
+
+	private static final Duration ROTATION_INTERVAL = Duration.ofDays(30);
+	private static final Duration ACTIVATION_DELAY = Duration.ofMinutes(10);
+	private static final Duration OVERLAP = Duration.ofDays(8);
+
+	private final TestClock clock = new TestClock(Instant.parse("2026-01-01T00:00:00Z"));
+	private final InMemorySigningKeys table = new InMemorySigningKeys();
+
+	@Test
+	void instancesStartingOnAnEmptyTableShareOneKey() {
+		SigningKeyService first = service(table.repository);
+		first.init();
+		// the second instance read the table before the first one's insert landed
+		SigningKeyService second = service(table.repositoryWithStaleFirstRead());
+		second.init();
+
+		assertEquals(1, table.rows.size());
+		assertEquals(first.signingKey().getKid(), second.signingKey().getKid());
+		assertEquals(first.jwks(), second.jwks());
+	}
+
+	@Test
+	void newKeyIsPublishedBeforeItSigns() {
+		SigningKeyService service = service(table.repository);
+		service.init();
+		String original = service.signingKey().getKid();
+
+		clock.advance(ROTATION_INTERVAL.plusMinutes(1));
+		service.rotateIfDue();
+		String successor = table.newest().getKid();
+
+		assertNotEquals(original, successor);
+		assertEquals(2, keys(service).size());
+		assertEquals(original, service.signingKey().getKid());
+
+		clock.advance(ACTIVATION_DELAY);
+
+		assertEquals(successor, service.signingKey().getKid());
+	}
+
+	@Test
+	void replacedKeyStaysPublishedForTheOverlap() {
+		SigningKeyService service = service(table.repository);
+		service.init();
+		String original = service.signingKey().getKid();
+		clock.advance(ROTATION_INTERVAL.plusMinutes(1));
+		service.rotateIfDue();
+
+		clock.advance(ACTIVATION_DELAY.plus(OVERLAP).minusMinutes(1));
+		service.rotateIfDue();
+
+		assertNotNull(service.publicKey(original));
+		assertEquals(2, keys(service).size());
+
+		clock.advance(Duration.ofMinutes(2));
+		service.rotateIfDue();
+
+		assertNull(service.publicKey(original));
+		assertEquals(1, keys(service).size());
+		assertEquals(1, table.rows.size());
+	}
+
+	@Test
+	void storesPrivateKeysEncrypted() {
+		SigningKeyService service = service(table.repository);
+		service.init();
+
+		String stored = table.newest().getPrivateKey();
+		String plain = Base64.getEncoder().encodeToString(service.signingKey().getPrivateKey().getEncoded());
+		assertTrue(stored.startsWith(SigningKeyService.ENCRYPTED_PREFIX));
+		assertFalse(stored.contains(plain.substring(0, 64)));
+
+		SigningKeyService otherKey = new SigningKeyService(table.repository, ROTATION_INTERVAL, ACTIVATION_DELAY,
+				OVERLAP, 1024, "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=", clock);
+		assertThrows(IllegalStateException.class, otherKey::init);
+	}
+
+	@Test
+	void refusesPrivateKeysNotStoredEncrypted() {
+		SigningKeyService service = service(table.repository);
+		service.init();
+		table.newest().setPrivateKey(Base64.getEncoder().encodeToString(service.signingKey().getPrivateKey().getEncoded()));
+
+		assertThrows(IllegalStateException.class, service(table.repository)::init);
+	}
+
+	@Test
+	void requiresAnEncryptionKey() {
+		assertThrows(IllegalStateException.class, () -> new SigningKeyService(table.repository, ROTATION_INTERVAL,
+				ACTIVATION_DELAY, OVERLAP, 1024, "", clock));
+	}
+
+	private SigningKeyService service(SigningKeyRepository repository) {
+		return new SigningKeyService(repository, ROTATION_INTERVAL, ACTIVATION_DELAY, OVERLAP, 1024, ENCRYPTION_KEY,
+				clock);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> keys(SigningKeyService service) {
+		return (List<Map<String, Object>>) service.jwks().get("keys");
+	}
+
+	/** The signing_keys table, including the unique generation column. */
+	static final class InMemorySigningKeys {
+
+		final List<SigningKey> rows = new ArrayList<>();
+		final SigningKeyRepository repository = repository(false);
+
+		SigningKeyRepository repositoryWithStaleFirstRead() {
+			return repository(true);
+		}
+
+		SigningKey newest() {
+			return findAll().get(0);
+		}
+
+		private List<SigningKey> findAll() {
+			List<SigningKey> sorted = new ArrayList<>(rows);
+			sorted.sort(Comparator.comparing(SigningKey::getCreatedAt).reversed());
+			return sorted;
+		}
+
+		private SigningKeyRepository repository(boolean staleFirstRead) {
+			SigningKeyRepository repository = mock(SigningKeyRepository.class);
+			boolean[] stale = { staleFirstRead };
+			when(repository.findAllByOrderByCreatedAtDesc()).thenAnswer(invocation -> {
+				if (stale[0]) {
+					stale[0] = false;
+					return List.of();
+				}
+				return findAll();
+			});
+			when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+				SigningKey key = invocation.getArgument(0);
+				if (rows.stream().anyMatch(row -> row.getGeneration() == key.getGeneration())) {
+					throw new DataIntegrityViolationException("Duplicate entry for signing_keys.generation");
+				}
+				rows.add(key);
+				return key;
+			});
+			doAnswer(invocation -> rows.remove(invocation.<SigningKey>getArgument(0))).when(repository).delete(any());
+			return repository;
+		}
+	}
+
+	static final class TestClock extends Clock {
+
+		private Instant now;
+
+		TestClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package com.hediske.workout.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform-thread and virtual-thread modes of the
+ * servlet services. Each of {@code --concurrency} clients sends a request, waits for the response
+ * and immediately sends the next; requests completing during {@code --warmup} are discarded.
+ * Prints throughput, latency percentiles and error counts for one run, tagged with {@code --label}.
+ *
+ * To compare the modes, start the service against a local MySQL once with and once without the
+ * {@code virtual-threads} profile (built with {@code -Pjava21}) and run the same command for each:
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.args="--label platform --concurrency 1000 --duration PT60S"
+ * </pre>
+ *
+ * Defaults target workout-service's stats endpoint, which reads the user's records from MySQL.
+ * Other endpoints or services take {@code --url}, {@code --method}, {@code --body} and repeated
+ * {@code --header Name:Value}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options = Options.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = options.request();
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long stopAt = measureFrom + options.duration.toNanos();
+
+        List<Recorder> recorders = new ArrayList<>(options.concurrency);
+        ExecutorService clients = Executors.newFixedThreadPool(options.concurrency);
+        CountDownLatch done = new CountDownLatch(options.concurrency);
+        for (int i = 0; i < options.concurrency; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            clients.execute(() -> {
+                try {
+                    runClient(client, request, recorder, measureFrom, stopAt);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+        clients.awaitTermination(10, TimeUnit.SECONDS);
+
+        report(options, recorders);
+    }
+
+    private static void runClient(HttpClient client, HttpRequest request, Recorder recorder, long measureFrom,
+            long stopAt) {
+        while (true) {
+            long sentAt = System.nanoTime();
+            if (sentAt - stopAt >= 0) {
+                return;
+            }
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+            long completedAt = System.nanoTime();
+            if (completedAt - measureFrom >= 0 && completedAt - stopAt < 0) {
+                recorder.record(completedAt - sentAt, status);
+            }
+        }
+    }
+
+    private static void report(Options options, List<Recorder> recorders) {
+        int total = 0;
+        for (Recorder recorder : recorders) {
+            total += recorder.count;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        long errors = 0;
+        Map<Integer, Long> statuses = new LinkedHashMap<>();
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.count);
+            offset += recorder.count;
+            errors += recorder.errors;
+            recorder.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        }
+        Arrays.sort(latencies);
+
+        double seconds = options.duration.toNanos() / 1e9;
+        System.out.printf("%s: %d clients, %s measured after %s warmup%n", options.label, options.concurrency,
+                options.duration, options.warmup);
+        System.out.printf("  requests   %d (%.1f req/s), errors %d, statuses %s%n", total, total / seconds, errors,
+                statuses);
+        if (total > 0) {
+            System.out.printf("  latency ms p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies[total - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    // one per client thread, so recording needs no synchronization
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private final Map<Integer, Long> statuses = new LinkedHashMap<>();
+
+        private void record(long latencyNanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            statuses.merge(status, 1L, Long::sum);
+            if (status < 200 || status >= 300) {
+                errors++;
+            }
+        }
+    }
+
+    private static final class Options {
+        private String label = "run";
+        private URI url = URI.create("http://localhost:8083/api/exercise/stats");
+        private String method = "GET";
+        private String body;
+        private final Map<String, String> headers = new LinkedHashMap<>(Map.of(
+                "X-User-Email", "loadtest@example.com",
+                "X-User-Role", "USER"));
+        private int concurrency = 1000;
+        private Duration duration = Duration.ofSeconds(60);
+        private Duration warmup = Duration.ofSeconds(15);
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i++]) {
+                    case "--label" -> options.label = value;
+                    case "--url" -> options.url = URI.create(value);
+                    case "--method" -> options.method = value;
+                    case "--body" -> options.body = value;
+                    case "--header" -> {
+                        int colon = value.indexOf(':');
+                        options.headers.put(value.substring(0, colon).trim(), value.substring(colon + 1).trim());
+                    }
+                    case "--concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "--duration" -> options.duration = Duration.parse(value);
+                    case "--warmup" -> options.warmup = Duration.parse(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                }
+            }
+            return options;
+        }
+
+        private HttpRequest request() {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(url)
+                    .timeout(Duration.ofSeconds(30))
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(body));
+            if (body != null) {
+                builder.header("Content-Type", "application/json");
+            }
+            headers.forEach(builder::header);
+            return builder.build();
+        }
+    }
+}